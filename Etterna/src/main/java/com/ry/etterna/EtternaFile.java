@@ -1,15 +1,19 @@
 package com.ry.etterna;
 
+import com.ry.etterna.note.EtternaNoteHeader;
 import com.ry.etterna.note.EtternaNoteInfo;
 import com.ry.etterna.reader.EtternaFileReader;
 import com.ry.etterna.reader.EtternaProperty;
 import com.ry.etterna.reader.EtternaTiming;
+import com.ry.etterna.reader.FileFingerprint;
 import com.ry.useful.Entity;
 import com.ry.useful.MutatingValue;
 import com.ry.useful.StringUtils;
+import com.ry.useful.property.PropertyReader.LoadMode;
 import com.ry.useful.property.SimpleStringProperty;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -71,9 +75,15 @@ public class EtternaFile {
     private final EtternaTiming timingInfo;
 
     /**
-     * All note info's for the target file.
+     * The header of every notes section, in the same order as the note info.
      */
-    private final List<EtternaNoteInfo> noteInfo;
+    private final List<EtternaNoteHeader> noteHeaders;
+
+    /**
+     * All note info's for the target file, only loaded when first requested.
+     */
+    @EqualsAndHashCode.Exclude
+    private List<EtternaNoteInfo> noteInfo;
 
     /**
      * Map of all simple string property elements.
@@ -87,16 +97,23 @@ public class EtternaFile {
      *                     such as malformed file, or fucked file encoding.
      */
     public EtternaFile(@NonNull final File file) throws IOException {
-        reader = new EtternaFileReader(file);
+        this(file, LoadMode.DECODED);
+    }
+
+    /**
+     * @param file The file to construct from.
+     * @param mode How the file should be loaded, {@link LoadMode#MAPPED} only
+     * decodes the properties that are read but keeps the file locked until
+     * this is garbage collected.
+     * @throws IOException If reading the subject file fails for some reason,
+     *                     such as malformed file, or fucked file encoding.
+     */
+    public EtternaFile(@NonNull final File file,
+                       @NonNull final LoadMode mode) throws IOException {
+        reader = new EtternaFileReader(file, mode);
         this.smFile = file;
         this.timingInfo = reader.getTimingInfo();
-        this.noteInfo = reader.getNoteInfo();
-
-        for (int i = 0; i < noteInfo.size(); ++i) {
-            final var v = noteInfo.get(i);
-            v.setParent(this);
-            v.setDifficultyIndex(i);
-        }
+        this.noteHeaders = reader.getNoteHeaders();
 
         // Load the basic string properties
         properties = new HashMap<>();
@@ -104,6 +121,54 @@ public class EtternaFile {
                 .forEach(x -> properties.put(x, reader.getStringProperty(x)));
     }
 
+    /**
+     * @return The fingerprint of the etterna file taken before it was read,
+     * it identifies the content this was parsed from.
+     */
+    public FileFingerprint getFingerprint() {
+        return reader.getFingerprint();
+    }
+
+    /**
+     * @return The SHA-1 of the content this was parsed from, computed once
+     * from the bytes already read.
+     */
+    public String getContentHash() {
+        return reader.getContentHash();
+    }
+
+    /**
+     * Loads the note data for all difficulties on the first call, this is
+     * the expensive part of the file so header only scans shouldn't call
+     * this.
+     *
+     * @return All note info's for the target file.
+     */
+    public synchronized List<EtternaNoteInfo> getNoteInfo() {
+        if (noteInfo == null) {
+            final List<EtternaNoteInfo> xs = reader.getNoteInfo();
+            for (int i = 0; i < xs.size(); ++i) {
+                final var v = xs.get(i);
+                v.setParent(this);
+                v.setDifficultyIndex(i);
+            }
+            noteInfo = xs;
+        }
+        return noteInfo;
+    }
+
+    /**
+     * @return {@code true} if at least one difficulty is dance-single.
+     */
+    public boolean hasDanceSingle() {
+        for (final EtternaNoteHeader header : noteHeaders) {
+            if (header.isDanceSingle()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Gets a simple string property.
      *
@@ -130,7 +195,7 @@ public class EtternaFile {
 
         return String.format(
                 "%s, %s, %s%n",
-                "DiffCount: " + noteInfo.size(),
+                "DiffCount: " + noteHeaders.size(),
                 timingInfo.toString(),
                 sj.toString()
         );
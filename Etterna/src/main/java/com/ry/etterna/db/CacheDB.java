@@ -1,16 +1,30 @@
 package com.ry.etterna.db;
 
 import com.ry.useful.database.SQLiteDB;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 
 import java.io.File;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
 
 /**
  * Java class created on 11/04/2022 for usage in project FunctionalUtils.
+ * Read access to the steps of an Etterna cache. Steps are either queried
+ * per chart key, queried for many chart keys at once, or, once
+ * {@link #preload()} has been called, read from an in-memory index of every
+ * step without any locking.
  *
  * @author -Ry
  */
@@ -22,11 +36,45 @@ public class CacheDB extends SQLiteDB {
     private static final String STEP_INFO_QUERY
             = "SELECT * FROM steps WHERE CHARTKEY = ?";
 
+    /**
+     * Streams the columns of every step, used to preload and as the base of
+     * batch queries.
+     */
+    private static final String PRELOAD_QUERY
+            = "SELECT CHARTNAME, CHARTKEY, STEPFILENAME, MSD FROM steps";
+
+    /**
+     * The start of a query for the steps of many chart keys, followed by a
+     * parameter for each key and a closing bracket.
+     */
+    private static final String STEP_INFO_BATCH_QUERY
+            = PRELOAD_QUERY + " WHERE CHARTKEY IN (";
+
+    /**
+     * The most chart keys in a single query, well under the parameter limit
+     * of older SQLite versions.
+     */
+    private static final int MAX_KEYS_PER_QUERY = 500;
+
     /**
      * Step info from chart key query.
      */
     private final PreparedStatement stepInfoQuery;
 
+    /**
+     * Every step keyed by chart key, if null steps are queried. Never
+     * modified once published.
+     */
+    private volatile Map<String, CacheStepsResult> preloaded;
+
+    /**
+     * The store consulted for chart keys before they're computed, if null
+     * chart keys are always computed.
+     */
+    @Getter
+    @Setter
+    private ChartKeyStore keyStore;
+
     /**
      * @param cacheDb Etterna Cache.db file.
      * @throws SQLException Iff the database is invalid/corrupted/load failed.
@@ -36,9 +84,79 @@ public class CacheDB extends SQLiteDB {
         stepInfoQuery = getDbConnection().prepareStatement(STEP_INFO_QUERY);
     }
 
+    /**
+     * @param cacheDb Etterna Cache.db file.
+     * @param isPreloaded If true every step is loaded at once.
+     * @throws SQLException Iff the database is invalid/corrupted/load failed.
+     * @see #preload()
+     */
+    public CacheDB(@NonNull final File cacheDb,
+                   final boolean isPreloaded) throws SQLException {
+        this(cacheDb);
+        if (isPreloaded) {
+            preload();
+        }
+    }
+
+    /**
+     * Reads the whole steps table in a single pass, after which every
+     * lookup is served from memory and can be made from any thread without
+     * blocking. The MSD of each step is kept raw until first accessed.
+     * Calling this again reloads the table.
+     *
+     * @throws SQLException Iff querying fails for some reason.
+     */
+    public void preload() throws SQLException {
+        final Map<String, CacheStepsResult> steps = new HashMap<>();
+        synchronized (stepInfoQuery) {
+            try (Statement stmt = getDbConnection().createStatement();
+                 ResultSet results = stmt.executeQuery(PRELOAD_QUERY)) {
+                readSteps(results, steps);
+            }
+        }
+        preloaded = steps;
+    }
+
+    /**
+     * Reads every row of a result set with the columns of
+     * {@link #PRELOAD_QUERY} into the provided map.
+     *
+     * @param results The rows to read.
+     * @param steps The map to read into, keyed by chart key.
+     * @throws SQLException Iff reading fails for some reason.
+     */
+    private static void readSteps(final ResultSet results,
+                                  final Map<String, CacheStepsResult> steps)
+            throws SQLException {
+        while (results.next()) {
+            final String chartKey = results.getString(2);
+            final String msd = results.getString(4);
+
+            // Unusable, the same as querying would fail on them
+            if (chartKey == null || msd == null) {
+                continue;
+            }
+
+            // It is possible to have more than 1, the first is used
+            steps.putIfAbsent(chartKey, CacheStepsResult.of(
+                    results.getString(1),
+                    chartKey,
+                    results.getString(3),
+                    msd
+            ));
+        }
+    }
+
+    /**
+     * @return True if every step has been preloaded.
+     */
+    public boolean isPreloaded() {
+        return preloaded != null;
+    }
+
     /**
      * Queries for the cached step data using the provided chart key as the
-     * identity.
+     * identity, if preloaded nothing is queried.
      *
      * @param chartKey The key to look for.
      * @return Optional of the found results.
@@ -46,6 +164,11 @@ public class CacheDB extends SQLiteDB {
      */
     public Optional<CacheStepsResult> getStepCacheFor(
             @NonNull final String chartKey) throws SQLException {
+        final Map<String, CacheStepsResult> steps = preloaded;
+        if (steps != null) {
+            return Optional.ofNullable(steps.get(chartKey));
+        }
+
         synchronized (stepInfoQuery) {
             stepInfoQuery.setString(1, chartKey);
             final List<CacheStepsResult> results = query(
@@ -62,6 +185,72 @@ public class CacheDB extends SQLiteDB {
         }
     }
 
+    /**
+     * Finds the cached step data of many chart keys at once, the keys are
+     * queried in chunks of {@link #MAX_KEYS_PER_QUERY} so a whole pack
+     * takes only a couple of queries. If preloaded nothing is queried.
+     *
+     * @param chartKeys The keys to look for, duplicates are only looked for
+     * once.
+     * @return The found results keyed by chart key, keys which weren't
+     * found are absent.
+     * @throws SQLException Iff querying fails for some reason.
+     */
+    public Map<String, CacheStepsResult> getStepCacheFor(
+            @NonNull final Collection<String> chartKeys) throws SQLException {
+        final Map<String, CacheStepsResult> found = new HashMap<>();
+        final Map<String, CacheStepsResult> steps = preloaded;
+        if (steps != null) {
+            for (final String chartKey : chartKeys) {
+                final CacheStepsResult result = steps.get(chartKey);
+                if (result != null) {
+                    found.put(chartKey, result);
+                }
+            }
+            return found;
+        }
+
+        final List<String> keys = new ArrayList<>(
+                new LinkedHashSet<>(chartKeys)
+        );
+        synchronized (stepInfoQuery) {
+            for (int start = 0;
+                 start < keys.size();
+                 start += MAX_KEYS_PER_QUERY) {
+                final List<String> chunk = keys.subList(
+                        start,
+                        Math.min(start + MAX_KEYS_PER_QUERY, keys.size())
+                );
+
+                try (PreparedStatement stmt = getDbConnection()
+                        .prepareStatement(batchQuery(chunk.size()))) {
+                    for (int i = 0; i < chunk.size(); ++i) {
+                        stmt.setString(i + 1, chunk.get(i));
+                    }
+
+                    try (ResultSet results = stmt.executeQuery()) {
+                        readSteps(results, found);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param numKeys The number of chart keys.
+     * @return The query for the steps of that many chart keys.
+     */
+    private static String batchQuery(final int numKeys) {
+        final StringJoiner sj = new StringJoiner(
+                ", ", STEP_INFO_BATCH_QUERY, ")"
+        );
+        for (int i = 0; i < numKeys; ++i) {
+            sj.add("?");
+        }
+        return sj.toString();
+    }
+
     /**
      * Closes the database connection.
      */
@@ -5,13 +5,16 @@ import com.ry.useful.database.Column;
 import com.ry.useful.database.SQLiteResultMap;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.ToString;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
+import java.math.BigInteger;
 import java.math.RoundingMode;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Optional;
 
 /**
@@ -25,20 +28,36 @@ import java.util.Optional;
 public class CacheStepsResult {
 
     /**
-     * The smallest rate expected.
+     * The smallest rate expected, in hundredths.
      */
-    private static final BigDecimal SMALLEST_RATE = new BigDecimal("0.70");
+    private static final int SMALLEST_RATE = 70;
 
     /**
-     * The largest rate expected
+     * The largest rate expected, in hundredths.
      */
-    private static final BigDecimal LARGEST_RATE = new BigDecimal("2.00");
+    private static final int LARGEST_RATE = 200;
 
     /**
-     * The increment for normal rates 0.7 to 2.0 this isn't constant however I
-     * don't care enough about the 0.05 factors.
+     * The increment for normal rates 0.7 to 2.0, in hundredths, this isn't
+     * constant however I don't care enough about the 0.05 factors.
      */
-    private static final BigDecimal BASE_INCREMENT = new BigDecimal("0.10");
+    public static final int BASE_INCREMENT = 10;
+
+    /**
+     * Half of the normal increment, in hundredths.
+     */
+    public static final int HALF_INCREMENT = BASE_INCREMENT / 2;
+
+    /**
+     * Rates further from zero than this, in hundredths, are clamped whilst
+     * parsed. It's a multiple of the increment and far beyond any rate.
+     */
+    private static final int RATE_LIMIT = 1_100_000_000;
+
+    /**
+     * Separates the rates of the raw MSD column.
+     */
+    private static final char RATE_DELIMITER = ':';
 
     /**
      * The name of this chart.
@@ -62,25 +81,158 @@ public class CacheStepsResult {
     private String stepFilename;
 
     /**
-     * The MSD for all rates.
+     * The raw MSD column, every rate is separated by ':'.
+     */
+    @Setter(AccessLevel.NONE)
+    private String rawMsd;
+
+    /**
+     * The start of every rate in the raw MSD column followed by the end of
+     * the last rate plus one, that is, rate 'i' spans from rateStarts[i] to
+     * rateStarts[i + 1] - 1.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private int[] rateStarts;
+
+    /**
+     * The MSD of every rate, each is only parsed when first accessed. MSD is
+     * immutable so racing threads at worst parse the same rate twice.
      */
-    private ArrayList<MSD> msdForAllRates;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private MSD[] msdForAllRates;
 
     /**
-     * Loads the RAW MSD info string into a list of MSD Complex types.
+     * The interpolated MSD of every half increment 0.75 to 1.95, each is
+     * only interpolated when first accessed.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private MSD[] msdForHalfRates;
+
+    /**
+     * Creates a result from the columns of a row directly, rather than
+     * through reflection.
+     *
+     * @param chartName The name of the chart.
+     * @param chartKey The chart key of the chart.
+     * @param stepFilename The file of the chart.
+     * @param rawMsd The raw MSD column.
+     * @return The result of the row.
+     */
+    static CacheStepsResult of(final String chartName,
+                               final String chartKey,
+                               final String stepFilename,
+                               final String rawMsd) {
+        final CacheStepsResult result = new CacheStepsResult();
+        result.setChartName(chartName);
+        result.setChartKey(chartKey);
+        result.setStepFilename(stepFilename);
+        result.initMSDForAllRates(rawMsd);
+        return result;
+    }
+
+    /**
+     * Indexes the rates of the raw MSD column, no rate is parsed until it is
+     * accessed. Rates are delimited as {@code raw.split(":")} would.
      *
      * @param raw The string to process.
      */
     @Column(value = "MSD")
     private void initMSDForAllRates(final String raw) {
-        final String[] allRates = raw.split(":");
+        int numRates = 1;
+        for (int i = 0; i < raw.length(); ++i) {
+            if (raw.charAt(i) == RATE_DELIMITER) {
+                ++numRates;
+            }
+        }
 
-        final ArrayList<MSD> pAllRates = new ArrayList<>();
-        for (final String rawMsdInfo : allRates) {
-            pAllRates.add(MSD.initFromStr(rawMsdInfo));
+        final int[] starts = new int[numRates + 1];
+        int rate = 0;
+        for (int i = 0; i < raw.length(); ++i) {
+            if (raw.charAt(i) == RATE_DELIMITER) {
+                starts[++rate] = i + 1;
+            }
         }
+        starts[numRates] = raw.length() + 1;
 
-        this.msdForAllRates = pAllRates;
+        // Trailing empty rates are dropped
+        if (numRates > 1) {
+            while (numRates > 0
+                    && starts[numRates] - starts[numRates - 1] == 1) {
+                --numRates;
+            }
+        }
+
+        this.rawMsd = raw;
+        this.rateStarts = Arrays.copyOf(starts, numRates + 1);
+        this.msdForAllRates = new MSD[numRates];
+        this.msdForHalfRates = new MSD[MSD.BASE_INCREMENT_SIZE - 1];
+    }
+
+    /**
+     * @return The number of rates held.
+     */
+    public int getNumRates() {
+        return msdForAllRates.length;
+    }
+
+    /**
+     * Gets the MSD of a rate, parsing it if not yet parsed.
+     *
+     * @param index The index of the rate.
+     * @return The MSD of the rate.
+     * @throws IllegalStateException If the rate doesn't hold every skillset.
+     * @throws NumberFormatException If a value of the rate is malformed.
+     */
+    public MSD getMSD(final int index) {
+        MSD msd = msdForAllRates[index];
+        if (msd == null) {
+            msd = MSD.initFromStr(
+                    rawMsd, rateStarts[index], rateStarts[index + 1] - 1
+            );
+            msdForAllRates[index] = msd;
+        }
+        return msd;
+    }
+
+    /**
+     * Parses a rate into hundredths, rounding half even. Absurdly large rates
+     * are clamped, keeping whether they're a multiple of 0.1 or 0.05, so
+     * they can't wrap around onto a real rate.
+     *
+     * @param rate The rate to parse.
+     * @return The rate in hundredths.
+     * @throws NumberFormatException If the rate is not a number.
+     */
+    public static int toRateHundredths(final String rate) {
+        return toRateHundredths(new BigDecimal(rate));
+    }
+
+    /**
+     * @param rate The rate to convert.
+     * @return The rate in hundredths.
+     * @see #toRateHundredths(String)
+     */
+    public static int toRateHundredths(final BigDecimal rate) {
+        final BigInteger h = rate
+                .setScale(MSD.BASE_SCALE, RoundingMode.HALF_EVEN)
+                .unscaledValue();
+
+        if (h.bitLength() < Integer.SIZE - 1) {
+            return h.intValue();
+        }
+
+        final int clamped = RATE_LIMIT
+                + h.abs().mod(BigInteger.TEN).intValue();
+        return h.signum() < 0 ? -clamped : clamped;
     }
 
     /**
@@ -91,31 +243,79 @@ public class CacheStepsResult {
      * what was found.
      * @implNote This only works for rates within the 0.7 and 2.0 range with
      * an increment of 0.1f.
+     * @see #getMSDForRate(int)
      */
     public Optional<MSD> getMSDForRate(final String rateV) {
-        final BigDecimal rate = new BigDecimal(rateV)
-                .setScale(MSD.BASE_SCALE, RoundingMode.HALF_EVEN);
+        return getMSDForRate(toRateHundredths(rateV));
+    }
 
+    /**
+     * Attempts to find the MSD info for the provided rate. Any rate other
+     * than 0.7 to 2.0 in 0.1 increments gets the 2.0 MSD.
+     *
+     * @param rate The rate to search for, in hundredths.
+     * @return Empty optional if this doesn't hold 0.7 to 2.0 in 0.1
+     * increments, else an optional of what was found.
+     */
+    public Optional<MSD> getMSDForRate(final int rate) {
         // 0.7 -> 2.0 in 0.1 increments
-        if (msdForAllRates.size() == MSD.BASE_INCREMENT_SIZE) {
-
-            // Find the rate
-            int i = 0;
-            BigDecimal count = SMALLEST_RATE;
-            while (!count.equals(rate) && !count.equals(LARGEST_RATE)) {
-                count = count.add(BASE_INCREMENT, MathContext.DECIMAL64)
-                        .setScale(MSD.BASE_SCALE, RoundingMode.HALF_EVEN);
-                ++i;
-            }
-
-            // Return the value if inbounds (this check is redundant)
-            if (this.msdForAllRates.size() > i) {
-                return Optional.of(msdForAllRates.get(i));
-            }
+        if (getNumRates() == MSD.BASE_INCREMENT_SIZE) {
+            return Optional.of(getMSD(rateIndex(rate)));
 
             // There can be 0.5 -> 2.0 with increments of 0.05 but will
             // ignore that for now.
         }
         return Optional.empty();
     }
+
+    /**
+     * Interpolates the MSD of the rates half an increment either side of the
+     * provided rate, such as 0.7 and 0.8 for 0.75. Rates 0.75 to 1.95 are
+     * interpolated once and kept.
+     *
+     * @param rate The rate to interpolate, in hundredths.
+     * @return Empty optional if either side couldn't be found, else an
+     * optional of the interpolated MSD.
+     */
+    public Optional<MSD> getInterpolatedMSD(final int rate) {
+        if (getNumRates() != MSD.BASE_INCREMENT_SIZE) {
+            return Optional.empty();
+        }
+
+        final int lower = rate - HALF_INCREMENT;
+        final int upper = rate + HALF_INCREMENT;
+        if (!isIndexed(lower) || !isIndexed(upper)) {
+            return Optional.of(getMSD(rateIndex(lower))
+                    .interpolateMSD(getMSD(rateIndex(upper))));
+        }
+
+        final int index = rateIndex(lower);
+        MSD msd = msdForHalfRates[index];
+        if (msd == null) {
+            msd = getMSD(index).interpolateMSD(getMSD(index + 1));
+            msdForHalfRates[index] = msd;
+        }
+        return Optional.of(msd);
+    }
+
+    /**
+     * @param rate The rate in hundredths.
+     * @return True if the rate is 0.7 to 2.0 in 0.1 increments.
+     */
+    private static boolean isIndexed(final int rate) {
+        return rate >= SMALLEST_RATE
+                && rate <= LARGEST_RATE
+                && (rate - SMALLEST_RATE) % BASE_INCREMENT == 0;
+    }
+
+    /**
+     * @param rate The rate in hundredths.
+     * @return The index of the rate, or of 2.0 if the rate isn't indexed.
+     */
+    private static int rateIndex(final int rate) {
+        if (isIndexed(rate)) {
+            return (rate - SMALLEST_RATE) / BASE_INCREMENT;
+        }
+        return MSD.BASE_INCREMENT_SIZE - 1;
+    }
 }
@@ -0,0 +1,192 @@
+package com.ry.etterna.db;
+
+import com.ry.etterna.note.ChartKeys;
+import com.ry.etterna.reader.FileFingerprint;
+import com.ry.useful.database.SQLiteDB;
+import lombok.NonNull;
+
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Local SQLite store of the 1.0 rate chart keys of every difficulty, keyed by
+ * the fingerprint of the file they were computed from. A stored key is only
+ * returned for the content it was computed from, that is, same size and
+ * either the same modified time or the same content hash as the parsed
+ * file. The hash is always that of the content already read, the store
+ * never reads the file itself. All queries share a single connection so
+ * they're synchronised on this store.
+ *
+ * @author -Ry
+ */
+public class ChartKeyStore extends SQLiteDB {
+
+    /**
+     * Creates the table if this is a new store.
+     */
+    private static final String CREATE_TABLE
+            = "CREATE TABLE IF NOT EXISTS chartkeys ("
+            + "PATH TEXT NOT NULL, "
+            + "DIFFICULTY INTEGER NOT NULL, "
+            + "SIZE INTEGER NOT NULL, "
+            + "MTIME INTEGER NOT NULL, "
+            + "HASH TEXT NOT NULL, "
+            + "CHARTKEY TEXT NOT NULL, "
+            + "CHARTKEY4K TEXT NOT NULL, "
+            + "DANCESINGLE INTEGER NOT NULL, "
+            + "PRIMARY KEY (PATH, DIFFICULTY))";
+
+    /**
+     * Finds the keys of a single difficulty.
+     */
+    private static final String SELECT_QUERY
+            = "SELECT * FROM chartkeys WHERE PATH = ? AND DIFFICULTY = ?";
+
+    /**
+     * Inserts, or replaces, the keys of a single difficulty.
+     */
+    private static final String INSERT_QUERY
+            = "INSERT OR REPLACE INTO chartkeys "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Updates the modified time of every difficulty of a file.
+     */
+    private static final String TOUCH_QUERY
+            = "UPDATE chartkeys SET MTIME = ? WHERE PATH = ? AND HASH = ?";
+
+    /**
+     * Select keys query.
+     */
+    private final PreparedStatement selectQuery;
+
+    /**
+     * Insert keys query.
+     */
+    private final PreparedStatement insertQuery;
+
+    /**
+     * Update modified time query.
+     */
+    private final PreparedStatement touchQuery;
+
+    /**
+     * Opens, or creates, the store.
+     *
+     * @param storeDb The store file.
+     * @throws SQLException Iff the database is invalid/corrupted/load failed.
+     */
+    public ChartKeyStore(@NonNull final File storeDb) throws SQLException {
+        super(storeDb);
+        try (Statement stmt = getDbConnection().createStatement()) {
+            stmt.execute(CREATE_TABLE);
+        }
+
+        selectQuery = getDbConnection().prepareStatement(SELECT_QUERY);
+        insertQuery = getDbConnection().prepareStatement(INSERT_QUERY);
+        touchQuery = getDbConnection().prepareStatement(TOUCH_QUERY);
+    }
+
+    /**
+     * Finds the stored keys of a difficulty, if they were stored for other
+     * content than was parsed they're ignored.
+     *
+     * @param smFile The file of the chart.
+     * @param parsed The fingerprint of the file when it was parsed.
+     * @param hash The SHA-1 of the parsed content.
+     * @param difficultyIndex The index of the chart in the file.
+     * @return Optional of the stored keys, empty if there are none or if
+     * they're out of date.
+     * @throws SQLException Iff querying fails for some reason.
+     */
+    public Optional<StoredChartKeys> get(@NonNull final File smFile,
+                                         @NonNull final FileFingerprint parsed,
+                                         @NonNull final String hash,
+                                         final int difficultyIndex)
+            throws SQLException {
+        final String path = smFile.getAbsolutePath();
+        synchronized (this) {
+            selectQuery.setString(1, path);
+            selectQuery.setInt(2, difficultyIndex);
+            final List<StoredChartKeys> results
+                    = query(selectQuery, StoredChartKeys.class);
+
+            if (results == null || results.isEmpty()) {
+                return Optional.empty();
+            }
+
+            final StoredChartKeys keys = results.get(0);
+            if (keys.getSize() != parsed.getSize()) {
+                return Optional.empty();
+            }
+
+            // Touched but not modified, the content decides
+            final long lastModified = parsed.getLastModified();
+            if (keys.getLastModified() != lastModified) {
+                if (!hash.equals(keys.getHash())) {
+                    return Optional.empty();
+                }
+
+                touchQuery.setLong(1, lastModified);
+                touchQuery.setString(2, path);
+                touchQuery.setString(3, hash);
+                touchQuery.executeUpdate();
+                keys.setLastModified(lastModified);
+            }
+
+            return Optional.of(keys);
+        }
+    }
+
+    /**
+     * Stores the keys of a difficulty under the fingerprint of the content
+     * they were computed from. If the file has been written to since it was
+     * parsed nothing is stored.
+     *
+     * @param smFile The file of the chart.
+     * @param parsed The fingerprint of the file when it was parsed.
+     * @param hash The SHA-1 of the parsed content.
+     * @param difficultyIndex The index of the chart in the file.
+     * @param keys The 1.0 rate chart keys.
+     * @param isDanceSingle True if the steps-type is dance-single.
+     * @throws SQLException Iff the insert fails for some reason.
+     */
+    public void put(@NonNull final File smFile,
+                    @NonNull final FileFingerprint parsed,
+                    @NonNull final String hash,
+                    final int difficultyIndex,
+                    @NonNull final ChartKeys keys,
+                    final boolean isDanceSingle) throws SQLException {
+        if (!parsed.isCurrent(smFile)) {
+            return;
+        }
+
+        synchronized (this) {
+            insertQuery.setString(1, smFile.getAbsolutePath());
+            insertQuery.setInt(2, difficultyIndex);
+            insertQuery.setLong(3, parsed.getSize());
+            insertQuery.setLong(4, parsed.getLastModified());
+            insertQuery.setString(5, hash);
+            insertQuery.setString(6, keys.getChartKey());
+            insertQuery.setString(7, keys.getChartKey4K());
+            insertQuery.setInt(8, isDanceSingle ? 1 : 0);
+            insertQuery.executeUpdate();
+        }
+    }
+
+    /**
+     * Closes the database connection.
+     */
+    @Override
+    public void close() throws SQLException {
+        selectQuery.close();
+        insertQuery.close();
+        touchQuery.close();
+        super.close();
+    }
+}
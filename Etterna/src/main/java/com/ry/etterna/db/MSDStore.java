@@ -0,0 +1,170 @@
+package com.ry.etterna.db;
+
+import com.ry.etterna.msd.MinaCalc;
+import com.ry.useful.database.SQLiteDB;
+import lombok.NonNull;
+
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Local SQLite store of computed MSD values keyed by the chart key, rate,
+ * and score goal they were computed for. The chart key identifies the notes
+ * and timing, however not the calc, so the version of the calc the values
+ * were computed by is kept as the user version of the database. If it
+ * differs from the current calc when opened every value is discarded. All
+ * queries share a single connection so they're synchronised on this store.
+ *
+ * @author -Ry
+ */
+public class MSDStore extends SQLiteDB {
+
+    /**
+     * Creates the table if this is a new store.
+     */
+    private static final String CREATE_TABLE
+            = "CREATE TABLE IF NOT EXISTS msd ("
+            + "CHARTKEY TEXT NOT NULL, "
+            + "RATE REAL NOT NULL, "
+            + "GOAL REAL NOT NULL, "
+            + "MSD BLOB NOT NULL, "
+            + "PRIMARY KEY (CHARTKEY, RATE, GOAL))";
+
+    /**
+     * Finds the MSD of a single chart, rate, and goal.
+     */
+    private static final String SELECT_QUERY
+            = "SELECT MSD FROM msd "
+            + "WHERE CHARTKEY = ? AND RATE = ? AND GOAL = ?";
+
+    /**
+     * Inserts, or replaces, the MSD of a single chart, rate, and goal.
+     */
+    private static final String INSERT_QUERY
+            = "INSERT OR REPLACE INTO msd VALUES (?, ?, ?, ?)";
+
+    /**
+     * Reads the calc version of the stored values.
+     */
+    private static final String VERSION_QUERY = "PRAGMA user_version";
+
+    /**
+     * Sets the calc version of the stored values, followed by the version.
+     */
+    private static final String SET_VERSION = "PRAGMA user_version = ";
+
+    /**
+     * Discards every stored value.
+     */
+    private static final String CLEAR_QUERY = "DELETE FROM msd";
+
+    /**
+     * Select MSD query.
+     */
+    private final PreparedStatement selectQuery;
+
+    /**
+     * Insert MSD query.
+     */
+    private final PreparedStatement insertQuery;
+
+    /**
+     * Opens, or creates, the store for the version of the native calc.
+     *
+     * @param storeDb The store file.
+     * @throws SQLException Iff the database is invalid/corrupted/load failed.
+     * @see MinaCalc#getCalcVersion()
+     */
+    public MSDStore(@NonNull final File storeDb) throws SQLException {
+        this(storeDb, MinaCalc.getCalcVersion());
+    }
+
+    /**
+     * Opens, or creates, the store. Values stored by any other calc version
+     * are discarded.
+     *
+     * @param storeDb The store file.
+     * @param calcVersion The version of the calc values are computed by.
+     * @throws SQLException Iff the database is invalid/corrupted/load failed.
+     */
+    public MSDStore(@NonNull final File storeDb,
+                    final int calcVersion) throws SQLException {
+        super(storeDb);
+        try (Statement stmt = getDbConnection().createStatement()) {
+            stmt.execute(CREATE_TABLE);
+
+            final int storedVersion;
+            try (ResultSet results = stmt.executeQuery(VERSION_QUERY)) {
+                storedVersion = results.next() ? results.getInt(1) : 0;
+            }
+
+            if (storedVersion != calcVersion) {
+                stmt.executeUpdate(CLEAR_QUERY);
+                stmt.executeUpdate(SET_VERSION + calcVersion);
+            }
+        }
+
+        selectQuery = getDbConnection().prepareStatement(SELECT_QUERY);
+        insertQuery = getDbConnection().prepareStatement(INSERT_QUERY);
+    }
+
+    /**
+     * @param chartKey The chart key of the chart.
+     * @param rate The rate the MSD was computed for.
+     * @param scoreGoal The score goal the MSD was computed for.
+     * @return Optional of the MSD Value of every skillset, empty if there is
+     * none stored.
+     * @throws SQLException Iff querying fails for some reason.
+     */
+    public synchronized Optional<float[]> get(@NonNull final String chartKey,
+                                              final float rate,
+                                              final float scoreGoal)
+            throws SQLException {
+        selectQuery.setString(1, chartKey);
+        selectQuery.setFloat(2, rate);
+        selectQuery.setFloat(3, scoreGoal);
+        final List<StoredMSD> results = query(selectQuery, StoredMSD.class);
+
+        if (results == null || results.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(results.get(0).getMsd());
+    }
+
+    /**
+     * Stores the MSD of a chart for a rate and score goal.
+     *
+     * @param chartKey The chart key of the chart.
+     * @param rate The rate the MSD was computed for.
+     * @param scoreGoal The score goal the MSD was computed for.
+     * @param msd The MSD Value of every skillset.
+     * @throws SQLException Iff the insert fails for some reason.
+     */
+    public synchronized void put(@NonNull final String chartKey,
+                                 final float rate,
+                                 final float scoreGoal,
+                                 @NonNull final float[] msd)
+            throws SQLException {
+        insertQuery.setString(1, chartKey);
+        insertQuery.setFloat(2, rate);
+        insertQuery.setFloat(3, scoreGoal);
+        insertQuery.setBytes(4, StoredMSD.toBlob(msd));
+        insertQuery.executeUpdate();
+    }
+
+    /**
+     * Closes the database connection.
+     */
+    @Override
+    public void close() throws SQLException {
+        selectQuery.close();
+        insertQuery.close();
+        super.close();
+    }
+}
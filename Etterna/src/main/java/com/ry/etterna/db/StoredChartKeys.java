@@ -0,0 +1,109 @@
+package com.ry.etterna.db;
+
+import com.ry.etterna.note.ChartKeys;
+import com.ry.useful.database.Column;
+import com.ry.useful.database.SQLiteResultMap;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * A single row of the {@link ChartKeyStore}, that is, the chart keys of a
+ * single difficulty and the fingerprint of the file they were computed from.
+ *
+ * @author -Ry
+ */
+@Data
+@NoArgsConstructor
+@SQLiteResultMap(isOverrideJvm = true)
+public class StoredChartKeys {
+
+    /**
+     * The absolute path of the file.
+     */
+    @Setter(onMethod_ = {@Column(value = "PATH")},
+            value = AccessLevel.PRIVATE)
+    private String path;
+
+    /**
+     * The size of the file in bytes.
+     */
+    private long size;
+
+    /**
+     * The last modified time of the file.
+     */
+    private long lastModified;
+
+    /**
+     * The SHA-1 of the file content.
+     */
+    @Setter(onMethod_ = {@Column(value = "HASH")},
+            value = AccessLevel.PRIVATE)
+    private String hash;
+
+    /**
+     * The difficulty index of the chart in the file.
+     */
+    private int difficultyIndex;
+
+    /**
+     * The chart key.
+     */
+    @Setter(onMethod_ = {@Column(value = "CHARTKEY")},
+            value = AccessLevel.PRIVATE)
+    private String chartKey;
+
+    /**
+     * The 4K chart key.
+     */
+    @Setter(onMethod_ = {@Column(value = "CHARTKEY4K")},
+            value = AccessLevel.PRIVATE)
+    private String chartKey4K;
+
+    /**
+     * True if the steps-type for the chart is dance-single.
+     */
+    private boolean isDanceSingle;
+
+    /**
+     * @param raw The size column value.
+     */
+    @Column(value = "SIZE")
+    private void initSize(final Number raw) {
+        this.size = raw.longValue();
+    }
+
+    /**
+     * @param raw The last modified column value.
+     */
+    @Column(value = "MTIME")
+    private void initLastModified(final Number raw) {
+        this.lastModified = raw.longValue();
+    }
+
+    /**
+     * @param raw The difficulty index column value.
+     */
+    @Column(value = "DIFFICULTY")
+    private void initDifficultyIndex(final Number raw) {
+        this.difficultyIndex = raw.intValue();
+    }
+
+    /**
+     * @param raw The dance-single column value, 1 for true.
+     */
+    @Column(value = "DANCESINGLE")
+    private void initDanceSingle(final Number raw) {
+        this.isDanceSingle = raw.intValue() != 0;
+    }
+
+    /**
+     * @return The stored chart keys.
+     */
+    public ChartKeys getChartKeys() {
+        return new ChartKeys(chartKey, chartKey4K);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ry.etterna.db;
+
+import com.ry.useful.database.Column;
+import com.ry.useful.database.SQLiteResultMap;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * A single row of the {@link MSDStore}, that is, the raw MSD of a chart for
+ * a single rate and score goal.
+ *
+ * @author -Ry
+ */
+@Data
+@NoArgsConstructor
+@SQLiteResultMap(isOverrideJvm = true)
+public class StoredMSD {
+
+    /**
+     * The MSD Value of every skillset.
+     */
+    private float[] msd;
+
+    /**
+     * @param msds The MSD floats.
+     * @return The MSD column value of the floats.
+     */
+    static byte[] toBlob(final float[] msds) {
+        final ByteBuffer buffer
+                = ByteBuffer.allocate(msds.length * Float.BYTES);
+        for (final float x : msds) {
+            buffer.putFloat(x);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @param raw The MSD column value.
+     */
+    @Column(value = "MSD")
+    private void initMsd(final byte[] raw) {
+        final ByteBuffer buffer = ByteBuffer.wrap(raw);
+        this.msd = new float[raw.length / Float.BYTES];
+        for (int i = 0; i < msd.length; ++i) {
+            msd[i] = buffer.getFloat();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.ry.etterna.msd;
+
+import com.ry.etterna.db.MSDStore;
+import com.ry.etterna.note.TimedNoteChart;
+import lombok.NonNull;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Caches the MSD computed by another calculator by the chart key, rate, and
+ * score goal. Recently used values are held in memory, every value is also
+ * kept in an optional {@link MSDStore} so they survive between runs. Only
+ * values missing from both are calculated.
+ *
+ * @author -Ry
+ */
+public class CachedMSDCalculator implements MSDCalculator {
+
+    /**
+     * The calculator used on a cache miss.
+     */
+    private final MSDCalculator calc;
+
+    /**
+     * The persistent store, can be null.
+     */
+    private final MSDStore store;
+
+    /**
+     * The recently used values, least recently used first.
+     */
+    private final Map<Key, float[]> recent;
+
+    /**
+     * @param calc The calculator to use on a cache miss.
+     * @param store The persistent store to use, can be null.
+     * @param capacity The maximum number of values held in memory.
+     */
+    public CachedMSDCalculator(@NonNull final MSDCalculator calc,
+                               final MSDStore store,
+                               final int capacity) {
+        this.calc = calc;
+        this.store = store;
+        this.recent = new LinkedHashMap<>(capacity, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<Key, float[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param chart The chart to calc.
+     * @param scoreGoal The score goal to achieve.
+     * @param rate The rate of the chart.
+     * @return MSD Value of every skillset for the chart, cached or
+     * calculated.
+     */
+    @Override
+    public float[] getMSDFloats(final TimedNoteChart chart,
+                                final float scoreGoal,
+                                final float rate) {
+        final Key key = new Key(chart.getChartKey(), rate, scoreGoal);
+        float[] msd = find(key);
+        if (msd == null) {
+            msd = calc.getMSDFloats(chart, scoreGoal, rate);
+            remember(key, msd);
+        }
+
+        return msd.clone();
+    }
+
+    /**
+     * Finds every cached rate, only the missing rates are calculated and
+     * they're calculated together in a single call.
+     *
+     * @param chart The 1.0 rate chart to calc.
+     * @param rates The rates to calc.
+     * @param scoreGoal The score goal to achieve.
+     * @return MSD Value of every skillset for every rate, cached or
+     * calculated.
+     */
+    @Override
+    public float[] getMSDForRates(final TimedNoteChart chart,
+                                  final float[] rates,
+                                  final float scoreGoal) {
+        final String chartKey = chart.getChartKey();
+        final float[] out = new float[rates.length * SkillSet.NUM_SKILLSETS];
+        final int[] missing = new int[rates.length];
+        int numMissing = 0;
+        for (int i = 0; i < rates.length; ++i) {
+            final float[] msd = find(new Key(chartKey, rates[i], scoreGoal));
+            if (msd == null) {
+                missing[numMissing++] = i;
+            } else {
+                System.arraycopy(
+                        msd, 0, out, i * SkillSet.NUM_SKILLSETS, msd.length
+                );
+            }
+        }
+
+        if (numMissing == 0) {
+            return out;
+        }
+
+        final float[] missingRates = new float[numMissing];
+        for (int i = 0; i < numMissing; ++i) {
+            missingRates[i] = rates[missing[i]];
+        }
+
+        final float[] msds
+                = calc.getMSDForRates(chart, missingRates, scoreGoal);
+        for (int i = 0; i < numMissing; ++i) {
+            final int from = i * SkillSet.NUM_SKILLSETS;
+            final float[] msd = Arrays.copyOfRange(
+                    msds, from, from + SkillSet.NUM_SKILLSETS
+            );
+            remember(new Key(chartKey, missingRates[i], scoreGoal), msd);
+            System.arraycopy(
+                    msd, 0, out, missing[i] * SkillSet.NUM_SKILLSETS, msd.length
+            );
+        }
+        return out;
+    }
+
+    /**
+     * @param key The key to find.
+     * @return The value held in memory or stored, null if there's none.
+     */
+    private float[] find(final Key key) {
+        float[] msd;
+        synchronized (recent) {
+            msd = recent.get(key);
+        }
+
+        if (msd == null) {
+            msd = load(key).orElse(null);
+            if (msd != null) {
+                synchronized (recent) {
+                    recent.put(key, msd);
+                }
+            }
+        }
+        return msd;
+    }
+
+    /**
+     * Holds a calculated value in memory and stores it.
+     *
+     * @param key The key of the value.
+     * @param msd The calculated value.
+     */
+    private void remember(final Key key, final float[] msd) {
+        save(key, msd);
+        synchronized (recent) {
+            recent.put(key, msd);
+        }
+    }
+
+    /**
+     * Closes the calculator used on a cache miss, the store is left open.
+     */
+    @Override
+    public void close() {
+        calc.close();
+    }
+
+    /**
+     * @param key The key to find.
+     * @return The stored value, empty if there's no store or no value.
+     */
+    private Optional<float[]> load(final Key key) {
+        if (store == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return store.get(key.chartKey(), key.rate(), key.scoreGoal());
+        } catch (final SQLException e) {
+            System.err.println("[SQL ERROR] " + key.chartKey());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param key The key to store under.
+     * @param msd The value to store.
+     */
+    private void save(final Key key, final float[] msd) {
+        if (store == null) {
+            return;
+        }
+
+        try {
+            store.put(key.chartKey(), key.rate(), key.scoreGoal(), msd);
+        } catch (final SQLException e) {
+            System.err.println("[SQL ERROR] " + key.chartKey());
+        }
+    }
+
+    /**
+     * A cached value's key.
+     *
+     * @param chartKey The chart key of the chart.
+     * @param rate The rate of the chart.
+     * @param scoreGoal The score goal.
+     */
+    private record Key(String chartKey, float rate, float scoreGoal) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.ry.etterna.msd;
+
+import com.ry.etterna.msd.MinaCalc.CalcHandle;
+import com.ry.etterna.note.TimedNoteChart;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Pool of native calculators, a calculator is only ever lent to a single
+ * thread at a time so any number of threads can calc concurrently. New
+ * calculators are created when none are idle, so the pool grows to the
+ * number of threads using it at once.
+ *
+ * @author -Ry
+ */
+public class CalcPool implements MSDCalculator {
+
+    /**
+     * Calculators not currently lent out.
+     */
+    private final Queue<CalcHandle> idle = new ConcurrentLinkedQueue<>();
+
+    /**
+     * True once closed.
+     */
+    private volatile boolean isClosed;
+
+    /**
+     * Lends a calculator to the action for its duration.
+     *
+     * @param action The action to apply.
+     * @param <R> The type of the result.
+     * @return The result of the action.
+     * @throws IllegalStateException If this pool has been closed.
+     */
+    public <R> R withCalc(final Function<CalcHandle, R> action) {
+        if (isClosed) {
+            throw new IllegalStateException("Calc pool closed");
+        }
+
+        CalcHandle calc = idle.poll();
+        if (calc == null) {
+            calc = MinaCalc.create();
+        }
+
+        try {
+            return action.apply(calc);
+        } finally {
+            idle.add(calc);
+
+            // Closed whilst lent, so close() may have missed it
+            if (isClosed) {
+                disposeIdle();
+            }
+        }
+    }
+
+    /**
+     * Calculates the MSD of a chart with any idle calculator.
+     *
+     * @param chart The chart to calc.
+     * @param scoreGoal The score goal to achieve.
+     * @param rate The rate of the chart.
+     * @return MSD Value of every skillset for the chart.
+     * @throws IllegalStateException If this pool has been closed.
+     */
+    @Override
+    public float[] getMSDFloats(final TimedNoteChart chart,
+                                final float scoreGoal,
+                                final float rate) {
+        return withCalc(x -> x.getMSDFloats(chart, scoreGoal, rate));
+    }
+
+    /**
+     * Calculates the MSD of a chart for many rates in a single native call
+     * with any idle calculator.
+     *
+     * @param chart The 1.0 rate chart to calc.
+     * @param rates The rates to calc.
+     * @param scoreGoal The score goal to achieve.
+     * @return MSD Value of every skillset for every rate.
+     * @throws IllegalStateException If this pool has been closed.
+     */
+    @Override
+    public float[] getMSDForRates(final TimedNoteChart chart,
+                                  final float[] rates,
+                                  final float scoreGoal) {
+        return withCalc(x -> x.getMSDForRates(chart, rates, scoreGoal));
+    }
+
+    /**
+     * Closes all idle calculators, calculators currently lent are closed
+     * when returned.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        disposeIdle();
+    }
+
+    /**
+     * Closes all idle calculators.
+     */
+    private void disposeIdle() {
+        CalcHandle calc;
+        while ((calc = idle.poll()) != null) {
+            calc.close();
+        }
+    }
+}
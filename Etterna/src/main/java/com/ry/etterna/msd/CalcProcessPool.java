@@ -0,0 +1,357 @@
+package com.ry.etterna.msd;
+
+import com.ry.etterna.note.NoteChart;
+import com.ry.etterna.note.TimedNoteChart;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Pool of helper processes which each run a {@link CalcWorker}. A failed
+ * assertion in the native calc kills the whole process, with this pool that
+ * is only a single worker rather than this JVM. A dead worker is replaced
+ * and the chart it died on is reported, the calc of every other chart is
+ * unaffected.
+ *
+ * <p>Up to 'numWorkers' charts are calculated at once, further threads
+ * wait for a worker to become idle.
+ *
+ * @author -Ry
+ */
+public class CalcProcessPool implements MSDCalculator {
+
+    /**
+     * How long a closing worker is given to exit before it's killed.
+     */
+    private static final long EXIT_TIMEOUT_SECONDS = 5;
+
+    /**
+     * The command used to start a worker.
+     */
+    private final List<String> command;
+
+    /**
+     * The maximum number of workers.
+     */
+    private final int numWorkers;
+
+    /**
+     * Workers not currently lent out, guarded by this pool.
+     */
+    private final Deque<Worker> idle = new ArrayDeque<>();
+
+    /**
+     * The number of live workers, including those starting, guarded by this
+     * pool.
+     */
+    private int numLive;
+
+    /**
+     * True once closed, guarded by this pool.
+     */
+    private boolean isClosed;
+
+    /**
+     * Creates the pool, workers are started when first needed and inherit
+     * the class and library path of this JVM.
+     *
+     * @param numWorkers The maximum number of workers.
+     * @throws IllegalArgumentException If 'numWorkers' is not positive.
+     */
+    public CalcProcessPool(final int numWorkers) {
+        if (numWorkers <= 0) {
+            throw new IllegalArgumentException(
+                    "Worker count must be positive: " + numWorkers
+            );
+        }
+
+        this.numWorkers = numWorkers;
+        this.command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java")
+                        .toString(),
+                "-cp",
+                System.getProperty("java.class.path"),
+                "-Djava.library.path="
+                        + System.getProperty("java.library.path"),
+                CalcWorker.class.getName()
+        );
+    }
+
+    /**
+     * Calculates the MSD of a chart with any idle worker.
+     *
+     * @param chart The chart to calc.
+     * @param scoreGoal The score goal to achieve.
+     * @param rate The rate of the chart.
+     * @return MSD Value of every skillset for the chart.
+     * @throws IllegalStateException If this pool has been closed, the worker
+     * died calculating the chart, or the calc failed.
+     */
+    @Override
+    public float[] getMSDFloats(final TimedNoteChart chart,
+                                final float scoreGoal,
+                                final float rate) {
+        final Worker worker = take();
+        try {
+            final float[] msd = worker.calc(chart, scoreGoal, rate);
+            release(worker);
+            return msd;
+
+        } catch (final IOException e) {
+            final int exitCode = worker.kill();
+            discard();
+            final String msg = String.format(
+                    "Calc worker died (exit %s) on chart %s at rate %s",
+                    exitCode,
+                    chart.getChartKey(),
+                    rate
+            );
+            System.err.println("[CALC-ERROR] " + msg);
+            throw new IllegalStateException(msg, e);
+
+        } catch (final RuntimeException e) {
+            release(worker);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes all idle workers, workers currently lent are closed when
+     * returned. Threads waiting for a worker fail straight away.
+     */
+    @Override
+    public void close() {
+        final List<Worker> xs;
+        synchronized (this) {
+            isClosed = true;
+            xs = new ArrayList<>(idle);
+            idle.clear();
+            numLive -= xs.size();
+            notifyAll();
+        }
+        xs.forEach(Worker::close);
+    }
+
+    /**
+     * Takes an idle worker, starting one if the pool is not full, else
+     * waits for one. A waiting thread starts a worker itself once a dead
+     * worker frees its place, so it's never left waiting on a worker that
+     * can't be returned.
+     *
+     * @return The worker.
+     * @throws IllegalStateException If this pool has been closed, if the
+     * worker can't be started, or if interrupted whilst waiting.
+     */
+    private Worker take() {
+        synchronized (this) {
+            while (true) {
+                if (isClosed) {
+                    throw new IllegalStateException("Calc pool closed");
+                }
+
+                if (!idle.isEmpty()) {
+                    return idle.poll();
+                }
+
+                if (numLive < numWorkers) {
+                    ++numLive;
+                    break;
+                }
+
+                try {
+                    wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(
+                            "Interrupted waiting for calc", e
+                    );
+                }
+            }
+        }
+
+        // Started outside the lock, it's slow
+        try {
+            return Worker.start(command);
+        } catch (final IOException e) {
+            discard();
+            throw new IllegalStateException("Calc worker start failed", e);
+        }
+    }
+
+    /**
+     * Returns a worker to the pool, if closed whilst lent it's closed.
+     *
+     * @param worker The worker to return.
+     */
+    private void release(final Worker worker) {
+        synchronized (this) {
+            if (!isClosed) {
+                idle.add(worker);
+                notifyAll();
+                return;
+            }
+            --numLive;
+        }
+        worker.close();
+    }
+
+    /**
+     * Frees the place of a dead, or never started, worker so a waiting
+     * thread can start a new one.
+     */
+    private synchronized void discard() {
+        --numLive;
+        notifyAll();
+    }
+
+    /**
+     * A single helper process and its pipes.
+     */
+    private static final class Worker {
+
+        /**
+         * The helper process.
+         */
+        private final Process process;
+
+        /**
+         * Requests to the process.
+         */
+        private final DataOutputStream out;
+
+        /**
+         * Responses from the process.
+         */
+        private final DataInputStream in;
+
+        /**
+         * @param process The helper process.
+         */
+        private Worker(final Process process) {
+            this.process = process;
+            this.out = new DataOutputStream(
+                    new BufferedOutputStream(process.getOutputStream())
+            );
+            this.in = new DataInputStream(
+                    new BufferedInputStream(process.getInputStream())
+            );
+        }
+
+        /**
+         * @param command The command to start the process with.
+         * @return The started worker.
+         * @throws IOException If the process can't be started.
+         */
+        static Worker start(final List<String> command) throws IOException {
+            return new Worker(new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start());
+        }
+
+        /**
+         * @param timed The chart to calc.
+         * @param scoreGoal The score goal to achieve.
+         * @param rate The rate of the chart.
+         * @return MSD Value of every skillset for the chart.
+         * @throws IOException If the process died.
+         * @throws IllegalStateException If the calc failed.
+         */
+        float[] calc(final TimedNoteChart timed,
+                     final float scoreGoal,
+                     final float rate) throws IOException {
+            final NoteChart chart = timed.getChart();
+            out.writeInt(MinaCalc.RawNotes.countNotes(timed));
+            out.writeFloat(scoreGoal);
+            out.writeFloat(rate);
+            for (int row = 0; row < chart.getNumRows(); ++row) {
+                final int n = chart.getMask(row);
+
+                if (n != 0) {
+                    out.writeInt(n);
+                    out.writeFloat(timed.getTimeSeconds(row));
+                }
+            }
+            out.flush();
+
+            skipToResponse();
+            final int status = in.readInt();
+            if (status == CalcWorker.FAILED) {
+                throw new IllegalStateException(in.readUTF());
+            }
+
+            final float[] msd = new float[status];
+            for (int i = 0; i < msd.length; ++i) {
+                msd[i] = in.readFloat();
+            }
+            return msd;
+        }
+
+        /**
+         * Reads until the start of a response, anything printed by the
+         * process before it is forwarded to stderr.
+         *
+         * @throws IOException If the process died.
+         */
+        private void skipToResponse() throws IOException {
+            int window = 0;
+            int numRead = 0;
+            while (numRead < Integer.BYTES || window != CalcWorker.MAGIC) {
+                final int b = in.read();
+                if (b == -1) {
+                    throw new EOFException("Calc worker closed");
+                }
+
+                if (numRead >= Integer.BYTES) {
+                    System.err.write(window >>> (Byte.SIZE * 3));
+                }
+                window = (window << Byte.SIZE) | b;
+                ++numRead;
+            }
+            System.err.flush();
+        }
+
+        /**
+         * Closes the requests pipe so the process exits, killing it if it
+         * doesn't exit in time.
+         */
+        void close() {
+            try {
+                out.close();
+                if (!process.waitFor(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (final IOException e) {
+                process.destroyForcibly();
+            } catch (final InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Kills the process.
+         *
+         * @return The exit code of the process.
+         */
+        int kill() {
+            process.destroyForcibly();
+            try {
+                return process.waitFor();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+}
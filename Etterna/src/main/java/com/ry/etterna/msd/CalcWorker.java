@@ -0,0 +1,107 @@
+package com.ry.etterna.msd;
+
+import com.ry.etterna.msd.MinaCalc.CalcHandle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Entry point of a helper process used by a {@link CalcProcessPool}, it reads
+ * requests from stdin and writes the MSD of each to stdout until stdin is
+ * closed. All values are written big endian.
+ *
+ * <p>A request is the note count, score goal, and rate followed by the mask
+ * and time of every note. A response is {@link #MAGIC}, then either
+ * {@link SkillSet#NUM_SKILLSETS} followed by the MSD of every skillset, or
+ * {@link #FAILED} followed by the error message.
+ *
+ * <p>The native calc may print to stdout, so the magic marks where a
+ * response starts and anything before it is not part of the protocol.
+ *
+ * @author -Ry
+ */
+public final class CalcWorker {
+
+    /**
+     * Marks the start of a response, this is not valid text.
+     */
+    static final int MAGIC = 0xCA1CF10A;
+
+    /**
+     * Status of a request which failed without killing the worker.
+     */
+    static final int FAILED = -1;
+
+    /**
+     * The number of notes fit by the initial buffer.
+     */
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private CalcWorker() {
+    }
+
+    /**
+     * Serves requests until stdin is closed.
+     *
+     * @param args Unused.
+     * @throws IOException If writing a response fails.
+     */
+    public static void main(final String[] args) throws IOException {
+        final DataInputStream in = new DataInputStream(
+                new BufferedInputStream(System.in)
+        );
+        final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(
+                        new FileOutputStream(FileDescriptor.out)
+                )
+        );
+
+        // Anything else printed can't be mistaken for a response
+        System.setOut(System.err);
+
+        ByteBuffer notes = MinaCalc.allocateNotes(INITIAL_CAPACITY);
+        try (CalcHandle calc = MinaCalc.create()) {
+            while (true) {
+                final int count;
+                try {
+                    count = in.readInt();
+                } catch (final EOFException e) {
+                    return;
+                }
+                final float scoreGoal = in.readFloat();
+                final float rate = in.readFloat();
+
+                if (count > notes.capacity() / MinaCalc.NOTE_INFO_BYTES) {
+                    notes = MinaCalc.allocateNotes(count);
+                }
+                notes.clear();
+                for (int i = 0; i < count; ++i) {
+                    notes.putInt(in.readInt()).putFloat(in.readFloat());
+                }
+
+                out.writeInt(MAGIC);
+                try {
+                    final float[] msd = calc.getMSDForRateAndGoal(
+                            notes, count, scoreGoal, rate
+                    );
+                    out.writeInt(msd.length);
+                    for (final float x : msd) {
+                        out.writeFloat(x);
+                    }
+                } catch (final RuntimeException e) {
+                    out.writeInt(FAILED);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                }
+                out.flush();
+            }
+        }
+    }
+}
@@ -1,28 +1,27 @@
 package com.ry.etterna.msd;
 
-import com.ry.useful.StringUtils;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
-import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import java.util.Comparator;
 import java.util.Optional;
 import java.util.StringJoiner;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
-import java.util.stream.Stream;
 
 /**
  * Java class created on 12/04/2022 for usage in project FunctionalUtils.
+ * The MSD of every skillset held as hundredths, that is, every value is
+ * already rounded to {@link #BASE_SCALE} decimal places. Comparisons are
+ * made on the hundredths directly, {@link BigDecimal} values are only
+ * created for display.
  *
  * @author -Ry
  */
-@ToString
 @EqualsAndHashCode
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class MSD {
 
     /**
@@ -54,26 +53,41 @@ public class MSD {
     public static final RoundingMode MODE = RoundingMode.HALF_UP;
 
     /**
-     * Array of MSD Skillset values.
+     * The number of hundredths in a whole MSD value.
      */
-    private final BigDecimal[] msdValues;
+    private static final int HUNDREDTHS = 100;
 
     /**
-     * Attempts to parse the provided string value into an MSD value.
-     *
-     * @param raw The value to parse.
-     * @return Iff raw is not a number then {@link #NAN} else if raw is a number
-     * then {@link #REASONABLE_LIMIT} or RAW parsed as a BigDecimal.
+     * The reasonable limit in hundredths.
      */
-    private static BigDecimal parseValue(final String raw) {
-        if (StringUtils.isFloat(raw)) {
-            return new BigDecimal(raw).min(REASONABLE_LIMIT);
+    private static final int REASONABLE_LIMIT_HUNDREDTHS
+            = toHundredths(REASONABLE_LIMIT);
 
-            // Not a number
-        } else {
-            return NAN;
-        }
-    }
+    /**
+     * {@link #NAN} in hundredths.
+     */
+    private static final int NAN_HUNDREDTHS = toHundredths(NAN);
+
+    /**
+     * Whole values are clamped to this whilst parsed so they can't
+     * overflow, anything this large is capped to the reasonable limit.
+     */
+    private static final long MAX_WHOLE = Integer.MAX_VALUE;
+
+    /**
+     * The range of {@link #inRange()} in hundredths.
+     */
+    private static final int DEFAULT_MIN = 1800;
+
+    /**
+     * The range of {@link #inRange()} in hundredths.
+     */
+    private static final int DEFAULT_MAX = 3500;
+
+    /**
+     * The MSD of every skillset in hundredths.
+     */
+    private final int[] hundredths;
 
     /**
      * Parses the raw single rate MSD information into parsed values.
@@ -82,23 +96,115 @@ public class MSD {
      * @return MSD info from the provided raw string.
      */
     public static MSD initFromStr(final String raw) {
-        final String[] skillSets = raw.replaceAll("[^0-9.,]+", "").split(",");
+        return initFromStr(raw, 0, raw.length());
+    }
+
+    /**
+     * Parses the raw single rate MSD information held between 'start' and
+     * 'end' of a larger sequence, such as every rate of a cache entry. The
+     * values are scanned straight into hundredths, anything but digits, dots
+     * and commas is ignored; a value with no digits is {@link #NAN}.
+     *
+     * @param raw The sequence holding the comma delimited args.
+     * @param start The index of the first char, inclusive.
+     * @param end The index of the last char, exclusive.
+     * @return MSD info from the provided range.
+     * @throws IllegalStateException If the range doesn't hold exactly one
+     * value for every skillset.
+     * @throws NumberFormatException If a value has more than one decimal
+     * point.
+     */
+    public static MSD initFromStr(final CharSequence raw,
+                                  final int start,
+                                  final int end) {
+        final int[] skills = new int[SkillSet.NUM_SKILLSETS];
+        int numSkills = 0;
+        int numFields = 0;
+        boolean isDelimited = false;
+        boolean isMalformed = false;
+
+        int i = start;
+        while (i <= end) {
+            // Scan a single value, stopping at the delimiter
+            long whole = 0;
+            int fraction = 0;
+            int numFractionDigits = 0;
+            boolean isRoundedUp = false;
+            boolean hasDigit = false;
+            boolean hasPoint = false;
+            boolean hasExtraPoint = false;
+            for (; i < end && raw.charAt(i) != ','; ++i) {
+                final char c = raw.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    hasDigit = true;
+                    if (!hasPoint) {
+                        whole = Math.min(whole * 10 + (c - '0'), MAX_WHOLE);
+                    } else if (numFractionDigits < BASE_SCALE) {
+                        fraction = fraction * 10 + (c - '0');
+                        ++numFractionDigits;
+                    } else if (numFractionDigits == BASE_SCALE) {
+                        isRoundedUp = c >= '5';
+                        ++numFractionDigits;
+                    }
+
+                } else if (c == '.') {
+                    hasExtraPoint |= hasPoint;
+                    hasPoint = true;
+                }
+            }
+
+            // Without a digit it's NaN, it was never parsed as a number
+            isMalformed |= hasExtraPoint && hasDigit;
+            isDelimited |= i < end;
+            ++i;
+
+            // Empty values only count when followed by a value, as split()
+            ++numFields;
+            if (hasDigit || hasPoint) {
+                while (numSkills < numFields - 1) {
+                    if (numSkills < skills.length) {
+                        skills[numSkills] = NAN_HUNDREDTHS;
+                    }
+                    ++numSkills;
+                }
+                if (numSkills < skills.length) {
+                    for (; numFractionDigits < BASE_SCALE;
+                         ++numFractionDigits) {
+                        fraction *= 10;
+                    }
+                    skills[numSkills] = !hasDigit
+                            ? NAN_HUNDREDTHS
+                            : (int) Math.min(
+                                    whole * HUNDREDTHS + fraction
+                                            + (isRoundedUp ? 1 : 0),
+                                    REASONABLE_LIMIT_HUNDREDTHS
+                            );
+                }
+                ++numSkills;
+            }
+        }
+
+        // A lone empty value is still a value
+        if (!isDelimited) {
+            numSkills = 1;
+        }
 
         // Shouldn't occur unless I missed something
-        if (skillSets.length != SkillSet.NUM_SKILLSETS) {
+        if (numSkills != SkillSet.NUM_SKILLSETS) {
             throw new IllegalStateException(String.format(
                     "MSD Load fail, num skills to process: '%s' should be "
                             + "'%s' processed from string '%s'%n",
-                    skillSets.length,
+                    numSkills,
                     SkillSet.NUM_SKILLSETS,
-                    raw
+                    raw.subSequence(start, end)
             ));
         }
 
-        // Load skills + init container
-        final BigDecimal[] skills = new BigDecimal[SkillSet.NUM_SKILLSETS];
-        for (int i = 0; i < skills.length; ++i) {
-            skills[i] = parseValue(skillSets[i]);
+        if (isMalformed) {
+            throw new NumberFormatException(
+                    "More than one decimal point: "
+                            + raw.subSequence(start, end)
+            );
         }
         return new MSD(skills);
     }
@@ -119,14 +225,57 @@ public class MSD {
             ));
         }
 
-        final BigDecimal[] skills = new BigDecimal[SkillSet.NUM_SKILLSETS];
+        return initFromFloats(msd, 0);
+    }
+
+    /**
+     * Loads an MSD instance from raw MSD floating point values held at some
+     * offset of a larger array, such as the output of a batch calc.
+     *
+     * @param msds The array containing the MSD floats.
+     * @param offset The index of the first skillset value.
+     * @return New MSD instance, which has the values of the MSD array using the
+     * default FPU Error correction.
+     */
+    public static MSD initFromFloats(final float[] msds, final int offset) {
+        if (offset < 0 || offset + SkillSet.NUM_SKILLSETS > msds.length) {
+            throw new RuntimeException(String.format(
+                    "MSD Load Fail offset '%s' out of bounds for '%s'%n",
+                    offset,
+                    msds.length
+            ));
+        }
+
+        final int[] skills = new int[SkillSet.NUM_SKILLSETS];
         for (int i = 0; i < skills.length; ++i) {
-            skills[i] = BigDecimal.valueOf(msd[i])
-                    .setScale(BASE_SCALE, MODE);
+            skills[i] = toHundredths(msds[offset + i]);
         }
         return new MSD(skills);
     }
 
+    /**
+     * @param value The value to convert.
+     * @return The value rounded, {@link #MODE}, to hundredths.
+     */
+    public static int toHundredths(final BigDecimal value) {
+        return value.setScale(BASE_SCALE, MODE).unscaledValue().intValue();
+    }
+
+    /**
+     * Rounds a float to hundredths without creating a BigDecimal, the
+     * result is identical to {@code BigDecimal.valueOf(value)} rounded to
+     * {@link #BASE_SCALE} places with {@link #MODE}.
+     *
+     * @param value The value to convert.
+     * @return The value rounded, {@link #MODE}, to hundredths.
+     */
+    public static int toHundredths(final float value) {
+        // Exact, a float has few enough bits that neither step rounds
+        final double scaled = Math.abs((double) value) * HUNDREDTHS;
+        final int rounded = (int) Math.floor(scaled + 0.5);
+        return value < 0 ? -rounded : rounded;
+    }
+
     /**
      * Gets the scaled MSD value for the provided skillset.
      *
@@ -134,7 +283,23 @@ public class MSD {
      * @return MSD Value scaled to 2 decimal places.
      */
     public BigDecimal getSkill(final SkillSet skill) {
-        return msdValues[skill.ordinal()].setScale(BASE_SCALE, MODE);
+        return BigDecimal.valueOf(getHundredths(skill), BASE_SCALE);
+    }
+
+    /**
+     * @param skill The skillset to get.
+     * @return MSD Value in hundredths, e.g., 2131 for 21.31.
+     */
+    public int getHundredths(final SkillSet skill) {
+        return hundredths[skill.ordinal()];
+    }
+
+    /**
+     * @param skill The skillset to get.
+     * @return MSD Value as a float, only exact to 2 decimal places.
+     */
+    public float getValue(final SkillSet skill) {
+        return (float) getHundredths(skill) / HUNDREDTHS;
     }
 
     /**
@@ -170,29 +335,12 @@ public class MSD {
      * @implNote This is more of a Mean of the two than it is anything else.
      */
     public MSD interpolateMSD(final MSD other) {
-        final BigDecimal[] interpolated
-                = new BigDecimal[SkillSet.NUM_SKILLSETS];
-
-        final AtomicInteger index = new AtomicInteger();
-        forEachSkill((skill, value) -> {
-            final BigDecimal otherValue = other.getSkill(skill);
-
-            // (A + B)
-            interpolated[index.getAndIncrement()] = value.add(
-                    otherValue,
-                    MathContext.DECIMAL64
-
-                    // (A + B) / 2
-            ).divide(
-                    new BigDecimal("2.0"),
-                    MathContext.DECIMAL64
-
-                    // 2DP & 0.5 UP
-            ).setScale(
-                    BASE_SCALE,
-                    RoundingMode.HALF_UP
-            );
-        });
+        final int[] interpolated = new int[SkillSet.NUM_SKILLSETS];
+        for (int i = 0; i < interpolated.length; ++i) {
+            // (A + B) / 2, 2DP & 0.5 UP
+            final int sum = hundredths[i] + other.hundredths[i];
+            interpolated[i] = sum >= 0 ? (sum + 1) / 2 : -((1 - sum) / 2);
+        }
 
         return new MSD(interpolated);
     }
@@ -215,9 +363,9 @@ public class MSD {
      * value.
      */
     public Optional<BigDecimal> getSkillIfReasonable(final SkillSet skill) {
-        final BigDecimal x = getSkill(skill);
-        if ((x == NAN) || (x == REASONABLE_LIMIT)) return Optional.empty();
-        return Optional.of(x);
+        final int x = getHundredths(skill);
+        if (x < 0 || x >= REASONABLE_LIMIT_HUNDREDTHS) return Optional.empty();
+        return Optional.of(getSkill(skill));
     }
 
     /**
@@ -230,29 +378,51 @@ public class MSD {
     public boolean inRange(final SkillSet skill,
                            final String min,
                            final String max) {
+        // The smallest, and largest, hundredths within the bounds
         final BigDecimal mi = new BigDecimal(min, MathContext.DECIMAL64);
         final BigDecimal ma = new BigDecimal(max, MathContext.DECIMAL64);
-        final BigDecimal sk = getSkill(skill);
+        return inRange(
+                skill,
+                mi.setScale(BASE_SCALE, RoundingMode.CEILING)
+                        .unscaledValue().intValue(),
+                ma.setScale(BASE_SCALE, RoundingMode.FLOOR)
+                        .unscaledValue().intValue()
+        );
+    }
 
-        // (sk >= min) && (sk <= max)
-        return sk.compareTo(mi) >= 0 && sk.compareTo(ma) <= 0;
+    /**
+     * @param skill The skill to check for the specified range.
+     * @param min The minimum (inclusive) in hundredths.
+     * @param max The maximum (inclusive) in hundredths.
+     * @return {@code true} if the value of the skillset is min, max, or a value
+     * between min and max.
+     */
+    public boolean inRange(final SkillSet skill, final int min, final int max) {
+        final int sk = getHundredths(skill);
+        return sk >= min && sk <= max;
     }
 
     /**
      * @return {@code true} if the overall MSD is within the range 18 to 35.
      */
     public boolean inRange() {
-        return inRange(SkillSet.OVERALL, "18", "35");
+        return inRange(SkillSet.OVERALL, DEFAULT_MIN, DEFAULT_MAX);
     }
 
     /**
-     * @return The highest skillset which is not Overall or Stamina.
+     * @return The highest skillset which is not Overall or Stamina, the
+     * first on a tie.
      */
     public SkillSet getBestSkill() {
-        return Stream.of(SkillSet.values())
-                .filter(x -> x != SkillSet.OVERALL && x != SkillSet.STAMINA)
-                .max(Comparator.comparing(this::getSkill))
-                .orElseThrow(RuntimeException::new);
+        SkillSet best = null;
+        for (final SkillSet x : SkillSet.values()) {
+            if (x != SkillSet.OVERALL && x != SkillSet.STAMINA
+                    && (best == null
+                    || getHundredths(x) > getHundredths(best))) {
+                best = x;
+            }
+        }
+        return best;
     }
 
     /**
@@ -298,6 +468,18 @@ public class MSD {
         return sj.toString();
     }
 
+    /**
+     * @return The value of every skillset.
+     */
+    @Override
+    public String toString() {
+        final StringJoiner sj = new StringJoiner(", ", "MSD(msdValues=[", "])");
+        for (final SkillSet skill : SkillSet.values()) {
+            sj.add(getSkill(skill).toString());
+        }
+        return sj.toString();
+    }
+
     /**
      * @return Skillset source string.
      */
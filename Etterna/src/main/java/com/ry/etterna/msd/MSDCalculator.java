@@ -0,0 +1,62 @@
+package com.ry.etterna.msd;
+
+import com.ry.etterna.note.TimedNoteChart;
+
+/**
+ * Java interface created on 18/10/2026 for usage in project FunctionalUtils.
+ * Anything which can calculate the MSD of a chart, implementations must be
+ * safe to use from any number of threads.
+ *
+ * @author -Ry
+ */
+public interface MSDCalculator extends AutoCloseable {
+
+    /**
+     * @param chart The chart to calc.
+     * @param scoreGoal The score goal to achieve.
+     * @param rate The rate of the chart.
+     * @return MSD Value of every skillset for the chart.
+     */
+    float[] getMSDFloats(TimedNoteChart chart, float scoreGoal, float rate);
+
+    /**
+     * @param chart The chart to calc.
+     * @param scoreGoal The score goal to achieve.
+     * @param rate The rate of the chart.
+     * @return MSD Value for the chart.
+     */
+    default MSD getMSD(final TimedNoteChart chart,
+                       final float scoreGoal,
+                       final float rate) {
+        return MSD.initFromFloats(getMSDFloats(chart, scoreGoal, rate));
+    }
+
+    /**
+     * Calculates the MSD of a chart for many rates, by default each rate is
+     * calculated on its own.
+     *
+     * @param chart The 1.0 rate chart to calc.
+     * @param rates The rates to calc.
+     * @param scoreGoal The score goal to achieve.
+     * @return MSD Value of every skillset for every rate, the MSD of rate 'i'
+     * starts at {@code i * NUM_SKILLSETS}.
+     */
+    default float[] getMSDForRates(final TimedNoteChart chart,
+                                   final float[] rates,
+                                   final float scoreGoal) {
+        final float[] out = new float[rates.length * SkillSet.NUM_SKILLSETS];
+        for (int i = 0; i < rates.length; ++i) {
+            final float[] msd = getMSDFloats(chart, scoreGoal, rates[i]);
+            System.arraycopy(
+                    msd, 0, out, i * SkillSet.NUM_SKILLSETS, msd.length
+            );
+        }
+        return out;
+    }
+
+    /**
+     * Releases every calculator, this does not throw any checked exception.
+     */
+    @Override
+    void close();
+}
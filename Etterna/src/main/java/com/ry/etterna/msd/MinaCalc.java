@@ -1,13 +1,15 @@
 package com.ry.etterna.msd;
 
 import com.ry.etterna.EtternaFile;
-import com.ry.etterna.note.EtternaNoteInfo;
-import com.ry.vsrg.sequence.TimingSequence;
+import com.ry.etterna.note.NoteChart;
+import com.ry.etterna.note.TimedNoteChart;
+import lombok.Getter;
 import lombok.Value;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.List;
 
 /**
@@ -35,6 +37,12 @@ public final class MinaCalc {
      */
     public static final float DEFAULT_RATE = 1.F;
 
+    /**
+     * The size in bytes of a single packed note, that is, the native
+     * NoteInfo struct of a 32-bit note mask followed by a 32-bit float time.
+     */
+    public static final int NOTE_INFO_BYTES = Integer.BYTES + Float.BYTES;
+
     ///////////////////////////////////////////////////////////////////////////
     // Statically access Mina calc, this will assume you don't want to create
     // a calculator and map many notes but just a single set of notes.
@@ -74,41 +82,559 @@ public final class MinaCalc {
      */
     public static native void dispose();
 
+    /**
+     * @return The version of the native calc, MSD computed by different
+     * versions can differ.
+     */
+    public static native int getCalcVersion();
+
     ///////////////////////////////////////////////////////////////////////////
-    // Class used as a bridge to the primitives that MinaCalc requires.
+    // Instanced access, each handle owns its own native calculator so
+    // different handles can be used by different threads concurrently.
     ///////////////////////////////////////////////////////////////////////////
 
-    // Todo this can be optimised.
+    /**
+     * Creates a new calculator, this must be closed once no longer needed.
+     *
+     * @return New calculator with its own native calc instance.
+     */
+    public static CalcHandle create() {
+        return new CalcHandle(createCalc());
+    }
+
+    /**
+     * @return The address of a new native calc instance.
+     */
+    private static native long createCalc();
+
+    /**
+     * @param calc The address of the native calc instance to delete.
+     */
+    private static native void disposeCalc(long calc);
+
+    /**
+     * @param calc The address of the native calc instance to use.
+     * @param notes All notes to calc.
+     * @param times The start time of each note.
+     * @param scoreGoal The score goal to achieve.
+     * @param rate The rate of the chart/notes.
+     * @return MSD Value for the above mapped notes.
+     */
+    private static native float[] getMSDForRateAndGoalWith(long calc,
+                                                           int[] notes,
+                                                           float[] times,
+                                                           float scoreGoal,
+                                                           float rate);
+
+    /**
+     * @param calc The address of the native calc instance to use.
+     * @param notes All notes to calc.
+     * @param times The start time of all the notes.
+     * @param fill The list to populate with MSD info.
+     * @return That same list.
+     */
+    private static native List<float[]> getMSDForAllRatesWith(
+            long calc,
+            int[] notes,
+            float[] times,
+            List<float[]> fill);
+
+    /**
+     * @param calc The address of the native calc instance to use.
+     * @param notes Direct buffer of packed notes in native byte order.
+     * @param count The number of notes in the buffer.
+     * @param scoreGoal The score goal to achieve.
+     * @param rate The rate of the chart/notes.
+     * @return MSD Value for the above packed notes.
+     */
+    private static native float[] getMSDForRateAndGoalDirect(long calc,
+                                                             ByteBuffer notes,
+                                                             int count,
+                                                             float scoreGoal,
+                                                             float rate);
+
+    /**
+     * @param calc The address of the native calc instance to use.
+     * @param notes Direct buffer of the packed notes of every chart.
+     * @param offsets The index of the first note of each chart followed by
+     * the total number of notes.
+     * @param ratesAndGoals Every rate followed by its score goal.
+     * @param out The array to write every MSD to.
+     */
+    private static native void getMSDBatchWith(long calc,
+                                               ByteBuffer notes,
+                                               int[] offsets,
+                                               float[] ratesAndGoals,
+                                               float[] out);
+
+    /**
+     * @param chart The index of the chart in the batch.
+     * @param pair The index of the rate and goal pair.
+     * @param numPairs The number of rate and goal pairs in the batch.
+     * @return The index in a batch output of the first skillset value for
+     * the chart at the rate and goal pair.
+     */
+    public static int batchIndex(final int chart,
+                                 final int pair,
+                                 final int numPairs) {
+        return (chart * numPairs + pair) * SkillSet.NUM_SKILLSETS;
+    }
+
+    /**
+     * @param minRate The first rate.
+     * @param maxRate The last rate.
+     * @param step The increment between rates.
+     * @return Every rate from 'minRate' to 'maxRate' inclusive in 'step'
+     * increments, each rate is rounded to hundredths so steps don't drift.
+     * @throws IllegalArgumentException If the step is not positive.
+     */
+    public static float[] sweepRates(final float minRate,
+                                     final float maxRate,
+                                     final float step) {
+        if (!(step > 0)) {
+            throw new IllegalArgumentException("Rate step must be positive");
+        }
+
+        // Tolerate float error in the range, e.g. 1.3 - 0.7 = 0.59999996
+        final int count = maxRate < minRate
+                ? 0
+                : (int) Math.floor((maxRate - minRate) / step + 1E-4) + 1;
+        final float[] rates = new float[count];
+        for (int i = 0; i < count; ++i) {
+            rates[i] = Math.round((minRate + i * step) * 100) / 100.F;
+        }
+        return rates;
+    }
+
+    /**
+     * Allocates a buffer the native calc can read without copying.
+     *
+     * @param count The number of notes the buffer should fit.
+     * @return Direct native ordered buffer fitting 'count' packed notes.
+     */
+    public static ByteBuffer allocateNotes(final int count) {
+        return ByteBuffer.allocateDirect(count * NOTE_INFO_BYTES)
+                .order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Packs the notes of a timed chart for the native calc, the buffer is
+     * flipped so the number of notes is {@code limit / NOTE_INFO_BYTES}.
+     *
+     * @param chart The chart to pack.
+     * @return Direct buffer of the packed notes.
+     */
+    public static ByteBuffer packNotes(final TimedNoteChart chart) {
+        final ByteBuffer buffer = allocateNotes(RawNotes.countNotes(chart));
+        return RawNotes.putNotes(chart, buffer).flip();
+    }
+
+    /**
+     * Packs the notes of many timed charts, one after another, into a single
+     * buffer for a batch calc.
+     *
+     * @param charts The charts to pack.
+     * @return The packed charts.
+     */
+    public static PackedCharts packNotes(final List<TimedNoteChart> charts) {
+        final int[] offsets = new int[charts.size() + 1];
+        for (int i = 0; i < charts.size(); ++i) {
+            offsets[i + 1] = offsets[i] + RawNotes.countNotes(charts.get(i));
+        }
+
+        final ByteBuffer buffer = allocateNotes(offsets[charts.size()]);
+        for (final TimedNoteChart chart : charts) {
+            RawNotes.putNotes(chart, buffer);
+        }
+        return new PackedCharts(buffer.flip(), offsets);
+    }
 
+    /**
+     * The notes of many charts packed into a single direct buffer. Chart 'i'
+     * is the notes from {@code offsets[i]} until {@code offsets[i + 1]}.
+     */
     @Value
-    private static class RawNotes {
-        int[] notes;
-        float[] times;
+    public static class PackedCharts {
 
-        RawNotes(final EtternaNoteInfo info) {
+        /**
+         * Direct native ordered buffer of the packed notes of every chart.
+         */
+        ByteBuffer notes;
 
-            List<Integer> notes = new ArrayList<>();
-            List<Float> times = new ArrayList<>();
+        /**
+         * The index of the first note of each chart followed by the total
+         * number of notes.
+         */
+        int[] offsets;
 
-            // Not fast but ehh
-            final TimingSequence seq = new TimingSequence();
-            info.forEachNote((m, r) -> {
-                int n = r.getNoteMapping();
+        /**
+         * @return The number of charts packed.
+         */
+        public int getNumCharts() {
+            return offsets.length - 1;
+        }
+    }
 
-                if (n != 0) {
-                    notes.add(n);
-                    times.add(seq.getCurTimeScaled().floatValue());
+    /**
+     * A single native calculator. A handle is not meant to be shared between
+     * threads, every call is synchronised on the handle regardless so
+     * sharing it is only slow, not unsafe. Use a {@link CalcPool} to use a
+     * calculator per thread.
+     */
+    public static final class CalcHandle implements AutoCloseable {
+
+        /**
+         * The address of the native calc instance, 0 once closed.
+         */
+        private long calc;
+
+        /**
+         * @param calc The address of the native calc instance.
+         */
+        private CalcHandle(final long calc) {
+            this.calc = calc;
+        }
+
+        /**
+         * @param notes All notes to calc.
+         * @param times The start time of each note, that is, zip xs zs :=
+         * [(x,z)]
+         * @param scoreGoal The score goal to achieve default is 0.93F.
+         * @param rate The rate of the chart/notes default is 1.F.
+         * @return MSD Value for the above mapped notes.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public synchronized float[] getMSDForRateAndGoal(final int[] notes,
+                                                         final float[] times,
+                                                         final float scoreGoal,
+                                                         final float rate) {
+            return getMSDForRateAndGoalWith(
+                    getCalc(), notes, times, scoreGoal, rate
+            );
+        }
+
+        /**
+         * Calculates the MSD of packed notes, the notes are read straight
+         * from the buffer so only a single native copy is made.
+         *
+         * @param notes Direct native ordered buffer of packed notes, see
+         * {@link #allocateNotes(int)}.
+         * @param count The number of notes in the buffer.
+         * @param scoreGoal The score goal to achieve default is 0.93F.
+         * @param rate The rate of the chart/notes default is 1.F.
+         * @return MSD Value for the above packed notes.
+         * @throws IllegalArgumentException If the buffer isn't direct or is
+         * smaller than the note count.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public synchronized float[] getMSDForRateAndGoal(
+                final ByteBuffer notes,
+                final int count,
+                final float scoreGoal,
+                final float rate) {
+            return getMSDForRateAndGoalDirect(
+                    getCalc(), notes, count, scoreGoal, rate
+            );
+        }
+
+        /**
+         * Calculates the MSD of every chart for every rate and goal in a
+         * single native call. The MSD of chart 'i' for pair 'j' is written to
+         * 'out' at {@link #batchIndex(int, int, int)}.
+         *
+         * @param notes Direct native ordered buffer of the packed notes of
+         * every chart.
+         * @param offsets The index of the first note of each chart followed
+         * by the total number of notes.
+         * @param ratesAndGoals Every rate followed by its score goal.
+         * @param out The array to write every MSD to, this must fit
+         * {@code charts * pairs * NUM_SKILLSETS} values.
+         * @throws IllegalArgumentException If the buffer isn't direct, the
+         * offsets aren't ascending from zero, a rate has no goal, or any
+         * array is too small.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public synchronized void getMSDBatch(final ByteBuffer notes,
+                                             final int[] offsets,
+                                             final float[] ratesAndGoals,
+                                             final float[] out) {
+            getMSDBatchWith(getCalc(), notes, offsets, ratesAndGoals, out);
+        }
+
+        /**
+         * Calculates the MSD of every packed chart for every rate and goal.
+         *
+         * @param charts The packed charts.
+         * @param ratesAndGoals Every rate followed by its score goal.
+         * @return Every MSD, indexed by {@link #batchIndex(int, int, int)}.
+         * @throws IllegalArgumentException If a rate has no goal.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public float[] getMSDBatch(final PackedCharts charts,
+                                   final float[] ratesAndGoals) {
+            final float[] out = new float[batchIndex(
+                    charts.getNumCharts(), 0, ratesAndGoals.length / 2
+            )];
+            getMSDBatch(
+                    charts.getNotes(), charts.getOffsets(), ratesAndGoals, out
+            );
+            return out;
+        }
+
+        /**
+         * Calculates the MSD of a timed chart. The notes are packed into a
+         * buffer reused by the calling thread, so nothing but the result is
+         * allocated once the buffer fits the largest chart seen.
+         *
+         * @param chart The chart to calc.
+         * @param scoreGoal The score goal to achieve default is 0.93F.
+         * @param rate The rate of the chart/notes default is 1.F.
+         * @return MSD Value for the chart.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public MSD getMSD(final TimedNoteChart chart,
+                          final float scoreGoal,
+                          final float rate) {
+            return MSD.initFromFloats(getMSDFloats(chart, scoreGoal, rate));
+        }
+
+        /**
+         * Calculates the raw MSD floats of a timed chart, see
+         * {@link #getMSD(TimedNoteChart, float, float)}.
+         *
+         * @param chart The chart to calc.
+         * @param scoreGoal The score goal to achieve default is 0.93F.
+         * @param rate The rate of the chart/notes default is 1.F.
+         * @return MSD Value of every skillset for the chart.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public float[] getMSDFloats(final TimedNoteChart chart,
+                                    final float scoreGoal,
+                                    final float rate) {
+            final RawNotes n = RawNotes.forThread().put(chart);
+            return getMSDForRateAndGoal(
+                    n.getBuffer(), n.getCount(), scoreGoal, rate
+            );
+        }
+
+        /**
+         * Calculates the MSD of a timed chart for many rates in a single
+         * native call, the notes are only copied once for all rates. The
+         * calc itself still processes the chart from scratch for every
+         * rate, every stage of it works on intervals of the rate scaled
+         * note times so nothing it derives holds for another rate.
+         *
+         * @param chart The 1.0 rate chart to calc.
+         * @param rates The rates to calc.
+         * @param scoreGoal The score goal to achieve default is 0.93F.
+         * @return MSD Value of every skillset for every rate, the MSD of
+         * rate 'i' starts at {@code i * NUM_SKILLSETS}.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public float[] getMSDForRates(final TimedNoteChart chart,
+                                      final float[] rates,
+                                      final float scoreGoal) {
+            final float[] ratesAndGoals = new float[rates.length * 2];
+            for (int i = 0; i < rates.length; ++i) {
+                ratesAndGoals[i * 2] = rates[i];
+                ratesAndGoals[i * 2 + 1] = scoreGoal;
+            }
+
+            final RawNotes n = RawNotes.forThread().put(chart);
+            final float[] out = new float[batchIndex(1, 0, rates.length)];
+            final int[] offsets = {0, n.getCount()};
+            getMSDBatch(n.getBuffer(), offsets, ratesAndGoals, out);
+            return out;
+        }
+
+        /**
+         * Calculates the MSD of a timed chart for every rate from 'minRate'
+         * to 'maxRate' inclusive in 'step' increments, see
+         * {@link #getMSDForRates(TimedNoteChart, float[], float)}.
+         *
+         * @param chart The 1.0 rate chart to calc.
+         * @param minRate The first rate.
+         * @param maxRate The last rate.
+         * @param step The increment between rates.
+         * @param scoreGoal The score goal to achieve default is 0.93F.
+         * @return MSD Value of every skillset for every rate.
+         * @throws IllegalArgumentException If the step is not positive.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public float[] getMSDForRates(final TimedNoteChart chart,
+                                      final float minRate,
+                                      final float maxRate,
+                                      final float step,
+                                      final float scoreGoal) {
+            return getMSDForRates(
+                    chart, sweepRates(minRate, maxRate, step), scoreGoal
+            );
+        }
+
+        /**
+         * @param notes All notes to calc.
+         * @param times The start time of all the notes.
+         * @param fill The list to populate with MSD info.
+         * @return That same list.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        public synchronized List<float[]> getMSDForAllRates(
+                final int[] notes,
+                final float[] times,
+                final List<float[]> fill) {
+            return getMSDForAllRatesWith(getCalc(), notes, times, fill);
+        }
+
+        /**
+         * @return {@code true} if this handle has been closed.
+         */
+        public synchronized boolean isClosed() {
+            return calc == 0;
+        }
+
+        /**
+         * Deletes the native calc instance, closing a closed handle does
+         * nothing.
+         */
+        @Override
+        public synchronized void close() {
+            if (calc != 0) {
+                disposeCalc(calc);
+                calc = 0;
+            }
+        }
+
+        /**
+         * @return The address of the native calc instance.
+         * @throws IllegalStateException If this handle has been closed.
+         */
+        private long getCalc() {
+            if (calc == 0) {
+                throw new IllegalStateException("Calc handle closed");
+            }
+            return calc;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Class used as a bridge to the primitives that MinaCalc requires.
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Growable buffer of packed notes, built straight from the row masks and
+     * times of a timed chart. A single instance is reused by each thread, so
+     * the buffer only grows until it fits the largest chart on that thread.
+     * The buffer is packed rather than split into int[] and float[] arrays
+     * since the array entry points take the note count from the array
+     * length, whereas the buffer is read in place up to the count.
+     */
+    static final class RawNotes {
+
+        /**
+         * The number of notes fit by a new buffer.
+         */
+        private static final int INITIAL_CAPACITY = 4096;
+
+        /**
+         * The instance of each thread.
+         */
+        private static final ThreadLocal<RawNotes> LOCAL
+                = ThreadLocal.withInitial(RawNotes::new);
+
+        /**
+         * Direct native ordered buffer of the packed notes.
+         */
+        @Getter
+        private ByteBuffer buffer = allocateNotes(INITIAL_CAPACITY);
+
+        /**
+         * The number of notes in the buffer.
+         */
+        @Getter
+        private int count;
+
+        /**
+         * @return The instance of the calling thread.
+         */
+        static RawNotes forThread() {
+            return LOCAL.get();
+        }
+
+        /**
+         * Replaces the buffered notes with the notes of a chart.
+         *
+         * @param chart The chart to buffer.
+         * @return This instance.
+         */
+        RawNotes put(final TimedNoteChart chart) {
+            final int numNotes = countNotes(chart);
+            if (numNotes > buffer.capacity() / NOTE_INFO_BYTES) {
+                buffer = allocateNotes(Math.max(
+                        numNotes, 2 * buffer.capacity() / NOTE_INFO_BYTES
+                ));
+            }
+
+            buffer.clear();
+            putNotes(chart, buffer);
+            count = numNotes;
+            return this;
+        }
+
+        /**
+         * @return The note mask of every buffered note.
+         */
+        int[] toNotes() {
+            final int[] notes = new int[count];
+            for (int i = 0; i < count; ++i) {
+                notes[i] = buffer.getInt(i * NOTE_INFO_BYTES);
+            }
+            return notes;
+        }
+
+        /**
+         * @return The start time of every buffered note in seconds.
+         */
+        float[] toTimes() {
+            final float[] times = new float[count];
+            for (int i = 0; i < count; ++i) {
+                times[i] = buffer.getFloat(i * NOTE_INFO_BYTES + Integer.BYTES);
+            }
+            return times;
+        }
+
+        /**
+         * @param chart The chart.
+         * @return The number of rows in the chart with any note.
+         */
+        static int countNotes(final TimedNoteChart chart) {
+            final NoteChart notes = chart.getChart();
+            int count = 0;
+            for (int row = 0; row < notes.getNumRows(); ++row) {
+                if (notes.getMask(row) != 0) {
+                    ++count;
                 }
+            }
+            return count;
+        }
 
-                seq.advanceByNote(m.size(), r.getBpm().getValue());
-            });
+        /**
+         * Packs every row of the chart with any note at the buffer position.
+         *
+         * @param chart The chart to pack.
+         * @param buffer The buffer to pack the notes into.
+         * @return That same buffer.
+         */
+        static ByteBuffer putNotes(final TimedNoteChart chart,
+                                   final ByteBuffer buffer) {
+            final NoteChart notes = chart.getChart();
+            for (int row = 0; row < notes.getNumRows(); ++row) {
+                final int n = notes.getMask(row);
 
-            this.notes = new int[notes.size()];
-            this.times = new float[notes.size()];
-            for (int i = 0; i < notes.size(); i++) {
-                this.notes[i] = notes.get(i);
-                this.times[i] = times.get(i) ;
+                if (n != 0) {
+                    buffer.putInt(n).putFloat(chart.getTimeSeconds(row));
+                }
             }
+            return buffer;
         }
     }
 
@@ -121,11 +647,11 @@ public final class MinaCalc {
         file.getNoteInfo().stream().findFirst().ifPresent(x -> {
             x.timeNotesWith(file.getTimingInfo());
 
-            RawNotes n = new RawNotes(x);
+            RawNotes n = RawNotes.forThread().put(x.getTimedChart());
 
             MSD msd = MSD.initFromFloats(getMSDForRateAndGoal(
-                    n.getNotes(),
-                    n.getTimes(),
+                    n.toNotes(),
+                    n.toTimes(),
                     0.93F,
                     1.F
             ));
@@ -0,0 +1,160 @@
+package com.ry.etterna.note;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Streams the chart key blob, the note ordinals and BPM integers as ASCII,
+ * straight into a SHA-1 digest so that the blob itself is never built. The
+ * digest and its buffer are reused, so an instance must only ever be used by
+ * a single thread at a time.
+ *
+ * @author -Ry
+ */
+final class ChartKeyDigest {
+
+    /**
+     * The prefix of every chart key.
+     */
+    private static final String KEY_PREFIX = "X";
+
+    /**
+     * The number of bytes buffered before they're fed to the digest.
+     */
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * The most ASCII chars an int can take up, including the sign.
+     */
+    private static final int MAX_INT_CHARS = 11;
+
+    /**
+     * The two digests of each thread, the full and the 4K key.
+     */
+    private static final ThreadLocal<ChartKeyDigest[]> DIGESTS
+            = ThreadLocal.withInitial(() -> new ChartKeyDigest[]{
+                    new ChartKeyDigest(), new ChartKeyDigest()
+            });
+
+    /**
+     * The SHA-1 digest being fed.
+     */
+    private final MessageDigest digest;
+
+    /**
+     * Bytes not yet fed to the digest.
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int size;
+
+    /**
+     * Creates a new SHA-1 chart key digest.
+     */
+    private ChartKeyDigest() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new Error("SHA-1 is not supported", e);
+        }
+    }
+
+    /**
+     * @return The reset full key digest of the current thread.
+     */
+    static ChartKeyDigest full() {
+        return DIGESTS.get()[0].reset();
+    }
+
+    /**
+     * @return The reset 4K key digest of the current thread, this is never
+     * the same instance as {@link #full()}.
+     */
+    static ChartKeyDigest fourKey() {
+        return DIGESTS.get()[1].reset();
+    }
+
+    /**
+     * @return This digest with any previous input discarded.
+     */
+    private ChartKeyDigest reset() {
+        digest.reset();
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Appends a note to the key.
+     *
+     * @param type The note type.
+     */
+    void appendNote(final NoteType type) {
+        // All ordinals are a single digit
+        final int ordinal = type.isHoldTail() ? 0 : type.ordinal();
+        ensureCapacity(1);
+        buffer[size++] = (byte) ('0' + ordinal);
+    }
+
+    /**
+     * Appends the decimal representation of the value to the key, that is,
+     * the same chars as {@link StringBuilder#append(int)}.
+     *
+     * @param value The value to append.
+     */
+    void appendInt(final int value) {
+        ensureCapacity(MAX_INT_CHARS);
+        if (value == 0) {
+            buffer[size++] = '0';
+            return;
+        }
+
+        // Negated so that Integer.MIN_VALUE doesn't overflow
+        int v = value > 0 ? -value : value;
+        if (value < 0) {
+            buffer[size++] = '-';
+        }
+
+        final int start = size;
+        while (v != 0) {
+            buffer[size++] = (byte) ('0' - (v % 10));
+            v /= 10;
+        }
+
+        // Digits were written least significant first
+        for (int i = start, j = size - 1; i < j; ++i, --j) {
+            final byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    /**
+     * Finishes the digest, this digest can't be used until reset.
+     *
+     * @return The chart key of everything appended.
+     */
+    String toKey() {
+        digest.update(buffer, 0, size);
+        size = 0;
+        return KEY_PREFIX + Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * Feeds the buffer to the digest if it can't fit the provided number of
+     * bytes.
+     *
+     * @param n The number of bytes about to be written.
+     */
+    private void ensureCapacity(final int n) {
+        if (size + n > buffer.length) {
+            digest.update(buffer, 0, size);
+            size = 0;
+        }
+    }
+}
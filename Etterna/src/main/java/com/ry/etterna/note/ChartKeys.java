@@ -0,0 +1,220 @@
+package com.ry.etterna.note;
+
+import com.ry.etterna.reader.EtternaTiming;
+import com.ry.vsrg.sequence.TimingSequence;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * The Chart key, and 4K Chart key, of a chart with some timing. Computing
+ * the keys needs only the note chars of every row and the BPM at the beat of
+ * that row, so they can be computed from the raw notes without loading or
+ * timing any notes.
+ *
+ * @author -Ry
+ */
+@Value
+public class ChartKeys {
+
+    /**
+     * Magic. This will probably create rounding errors on some files, but ima
+     * take a gamble nobody will have a bpm with a unit value of this (1.0 -
+     * 0.374643)
+     */
+    private static final double NUMBER_PROBABLY_PULLED_OUT_OF_SOMEONES_ASS
+            = 0.374643;
+
+    /**
+     * The number of columns Etterna uses for the 4K Chart key.
+     */
+    private static final int FOUR_KEY_COLUMNS = 4;
+
+    /**
+     * The Chart key.
+     */
+    String chartKey;
+
+    /**
+     * The Chart key ignoring any column after the fourth.
+     */
+    String chartKey4K;
+
+    /**
+     * Computes the chart keys of a raw '#NOTES:' value, that is, the rows are
+     * read straight from the raw text and the BPM of each row is found from
+     * its beat alone. The result is identical to timing the chart and
+     * calling {@link TimedNoteChart#getChartKeys()}.
+     *
+     * @param rawInfo The raw notes value.
+     * @param timing The timing to find the BPMs from.
+     * @return The chart keys.
+     * @throws IllegalStateException If the raw notes are malformed.
+     */
+    public static ChartKeys fromRaw(@NonNull final String rawInfo,
+                                    @NonNull final EtternaTiming timing) {
+        final String[] rawMeasures = EtternaNoteInfo.splitMeasures(rawInfo);
+        final int[] bpmKeys = bpmKeys(timing);
+        final TimingSequence sequence = new TimingSequence();
+        final EtternaTiming.Cursor cursor = timing.cursor();
+        final Hasher hasher = new Hasher();
+
+        int numColumns = -1;
+        for (final String m : rawMeasures) {
+            final int size = countRows(m);
+            int i = NoteMeasure.skipWhitespace(m, 0, m.length());
+            do {
+                final int end = NoteMeasure.skipRow(m, i, m.length());
+                if (numColumns == -1) {
+                    numColumns = end - i;
+                }
+                NoteChart.checkRow(m, i, end, numColumns);
+
+                final int index
+                        = cursor.advanceTo(sequence.getCurBeatHundredths());
+                hasher.row(m, i, numColumns, bpmKeys[index]);
+                sequence.advanceBeatByNote(size);
+
+                i = NoteMeasure.skipWhitespace(m, end, m.length());
+            } while (i < m.length());
+        }
+
+        return hasher.toKeys();
+    }
+
+    /**
+     * @param bpm The BPM value.
+     * @return The integer Etterna appends to the key for the BPM.
+     */
+    static int bpmKey(final double bpm) {
+        return (int) (bpm + NUMBER_PROBABLY_PULLED_OUT_OF_SOMEONES_ASS);
+    }
+
+    /**
+     * @param timing The timing.
+     * @return The key integer of every BPM in the timing.
+     */
+    static int[] bpmKeys(final EtternaTiming timing) {
+        return timing.stream()
+                .mapToInt(x -> bpmKey(x.getValue().doubleValue()))
+                .toArray();
+    }
+
+    /**
+     * Counts the rows of a raw measure the same way they're visited, that
+     * is, a measure with no rows still has one (malformed) row.
+     *
+     * @param m The raw measure.
+     * @return The number of rows in the measure.
+     */
+    private static int countRows(final String m) {
+        int count = 0;
+        int i = NoteMeasure.skipWhitespace(m, 0, m.length());
+        do {
+            ++count;
+            i = NoteMeasure.skipWhitespace(
+                    m, NoteMeasure.skipRow(m, i, m.length()), m.length()
+            );
+        } while (i < m.length());
+        return count;
+    }
+
+    /**
+     * Hashes both keys in a single pass over the rows. Each key is the SHA-1
+     * of, for every row that isn't empty in its columns, the ordinal of every
+     * column (hold tails as 0) followed by the BPM integer.
+     */
+    static final class Hasher {
+
+        /**
+         * The full key digest.
+         */
+        private final ChartKeyDigest full = ChartKeyDigest.full();
+
+        /**
+         * The 4K key digest.
+         */
+        private final ChartKeyDigest fourKey = ChartKeyDigest.fourKey();
+
+        /**
+         * The note types of the current row.
+         */
+        private NoteType[] types = new NoteType[0];
+
+        /**
+         * Hashes a row of raw note chars.
+         *
+         * @param raw The sequence containing the row.
+         * @param start The index of the first column.
+         * @param numColumns The number of columns.
+         * @param bpmKey The BPM integer of the row.
+         */
+        void row(final CharSequence raw,
+                 final int start,
+                 final int numColumns,
+                 final int bpmKey) {
+            if (types.length != numColumns) {
+                types = new NoteType[numColumns];
+            }
+            for (int col = 0; col < numColumns; ++col) {
+                types[col] = NoteType.of(raw.charAt(start + col));
+            }
+            row(types, bpmKey);
+        }
+
+        /**
+         * Hashes a row of notes.
+         *
+         * @param row The note type of every column.
+         * @param bpmKey The BPM integer of the row.
+         */
+        void row(final NoteType[] row, final int bpmKey) {
+            //
+            // The 4K key exists because Etterna treats Dance-single as 4k,
+            // even if the number of columns mapped is greater.
+            //
+            final int fourKeyColumns = Math.min(FOUR_KEY_COLUMNS, row.length);
+            final boolean isFourKey = !isEmpty(row, fourKeyColumns);
+            final boolean isFull = isFourKey || !isEmpty(row, row.length);
+            if (!isFull) {
+                return;
+            }
+
+            for (int col = 0; col < row.length; ++col) {
+                full.appendNote(row[col]);
+                if (isFourKey && col < fourKeyColumns) {
+                    fourKey.appendNote(row[col]);
+                }
+            }
+
+            // Magic number
+            full.appendInt(bpmKey);
+            if (isFourKey) {
+                fourKey.appendInt(bpmKey);
+            }
+        }
+
+        /**
+         * @return The keys of all hashed rows.
+         */
+        ChartKeys toKeys() {
+            return new ChartKeys(full.toKey(), fourKey.toKey());
+        }
+
+        /**
+         * @param row The note type of every column.
+         * @param keyCount The number of columns to test.
+         * @return {@code true} iff the first 'keyCount' notes are Hold Tail,
+         * or Empty.
+         */
+        private static boolean isEmpty(final NoteType[] row,
+                                       final int keyCount) {
+            for (int col = 0; col < keyCount; ++col) {
+                if (!row[col].isEmpty() && !row[col].isHoldTail()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ry.etterna.note;
+
+import lombok.Data;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * The header of a single '#NOTES:' block, that is, everything before the note
+ * data itself.
+ *
+ * @author -Ry
+ */
+@Data
+public class EtternaNoteHeader {
+
+    /**
+     * The number of ':' delimited fields preceding the note data.
+     */
+    public static final int NUM_FIELDS = 5;
+
+    /**
+     * The steps type used by Etterna to treat charts as 4k.
+     */
+    private static final String DANCE_SINGLE = "dance-single";
+
+    /**
+     * The steps type such as dance-single.
+     */
+    private final String stepsType;
+
+    /**
+     * The description, usually the chart author.
+     */
+    private final String description;
+
+    /**
+     * The difficulty name such as Challenge or Hard.
+     */
+    private final String difficulty;
+
+    /**
+     * The difficulty meter.
+     */
+    private final String meter;
+
+    /**
+     * The radar values.
+     */
+    private final String radarValues;
+
+    /**
+     * Loads the header from a '#NOTES:' value, only the header fields are
+     * read, that is, the note data is never split or copied.
+     *
+     * @param raw The notes value, with or without the leading '#NOTES:'.
+     * @return The header fields, missing fields are empty.
+     */
+    public static EtternaNoteHeader loadFromStr(final String raw) {
+        final String[] fields = new String[NUM_FIELDS];
+
+        int start = raw.regionMatches(true, 0, "#NOTES:", 0, 7) ? 7 : 0;
+        for (int i = 0; i < NUM_FIELDS; ++i) {
+            final int end = raw.indexOf(':', start);
+            if (end == -1) {
+                fields[i] = "";
+            } else {
+                fields[i] = raw.substring(start, end).trim();
+                start = end + 1;
+            }
+        }
+
+        return new EtternaNoteHeader(
+                fields[0], fields[1], fields[2], fields[3], fields[4]
+        );
+    }
+
+    /**
+     * @return {@code true} if the steps-type for this chart is dance-single.
+     */
+    public boolean isDanceSingle() {
+        return DANCE_SINGLE.equalsIgnoreCase(stepsType);
+    }
+}
@@ -3,20 +3,20 @@ package com.ry.etterna.note;
 import com.ry.etterna.EtternaFile;
 import com.ry.etterna.db.CacheDB;
 import com.ry.etterna.db.CacheStepsResult;
+import com.ry.etterna.db.ChartKeyStore;
+import com.ry.etterna.db.StoredChartKeys;
 import com.ry.etterna.reader.EtternaTiming;
+import com.ry.etterna.reader.FileFingerprint;
 import com.ry.useful.MessageBuilder;
-import com.ry.useful.MutatingValue;
-import com.ry.useful.StringUtils;
 import com.ry.vsrg.BPM;
 import com.ry.vsrg.sequence.TimingSequence;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
-import org.apache.commons.codec.digest.DigestUtils;
 
+import java.io.File;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Optional;
@@ -32,26 +32,17 @@ import java.util.stream.Stream;
 @Getter
 @ToString
 @EqualsAndHashCode
-@RequiredArgsConstructor
 public class EtternaNoteInfo {
 
     /**
-     * Magic. This will probably create rounding errors on some files, but ima
-     * take a gamble nobody will have a bpm with a unit value of this (1.0 -
-     * 0.374643)
+     * The tag the header info of .SM files starts with.
      */
-    private static final double NUMBER_PROBABLY_PULLED_OUT_OF_SOMEONES_ASS
-            = 0.374643;
+    private static final String NOTES_TAG = "#NOTES:";
 
     /**
-     * Regex that matches the header info of .SM files.
+     * The start of any comment.
      */
-    private static final String HEADER_REGEX = "(?is)#NOTES:(.*?:)+";
-
-    /**
-     * Matches any comment style bodies.
-     */
-    private static final String COMMENT_REGEX = "[^,]*//.*";
+    private static final String COMMENT_START = "//";
 
     /**
      * The maximum number of columns to allow, this is only used to map LN's in
@@ -59,11 +50,6 @@ public class EtternaNoteInfo {
      */
     private static final int MAX_COLUMNS = 99;
 
-    /**
-     * Hacky solution to appending the steps type information to the file.
-     */
-    private static final String DANCE_SINGLE_REGEX = "(?i)dance-single";
-
     /**
      * The parent file for this etterna chart.
      */
@@ -81,9 +67,32 @@ public class EtternaNoteInfo {
     private final String rawInfo;
 
     /**
-     * Array of all Note Measures mapped.
+     * The header fields of the raw info.
+     */
+    private final EtternaNoteHeader header;
+
+    /**
+     * Array of all Note Measures mapped, this is only loaded from the raw
+     * info when first requested.
      */
-    private final NoteMeasure[] measures;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private NoteMeasure[] measures;
+
+    /**
+     * The timing independent columnar chart, this is only loaded from the
+     * raw info when first requested.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private NoteChart chart;
+
+    /**
+     * The chart keys of the current timing info, computed on first request.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ChartKeys chartKeys;
 
     /**
      * True if the steps-type for this chart dance-single.
@@ -97,32 +106,177 @@ public class EtternaNoteInfo {
     private int difficultyIndex;
 
     /**
-     * Loads the Note Info from the RAW string.
+     * Loads the Note Info from the RAW string, only the header is read here
+     * the measures are loaded when first requested.
      *
      * @param info The string to load from.
      * @return New instance of etterna note info.
      */
     public static EtternaNoteInfo loadFromStr(final String info) {
         // Info is a single instance of: #NOTES:.*?;|$
-        // pretty sure i couldn't just split at ':' and it would've been fine...
-        final String[] measures = MutatingValue.of(info)
-                .mutateValue((s) -> s.replaceFirst(HEADER_REGEX, "")
-                        .replaceAll(COMMENT_REGEX, "")
-                        .replaceAll("[\t\f ]+", ""))
+        return new EtternaNoteInfo(info, EtternaNoteHeader.loadFromStr(info));
+    }
 
-                .mutateValueIf((s) -> s.endsWith(";"),
-                        (s) -> s.substring(0, s.length() - 1))
+    /**
+     * @param rawInfo The string used to construct this note info.
+     * @param header The header fields of the raw info.
+     */
+    public EtternaNoteInfo(@NonNull final String rawInfo,
+                           @NonNull final EtternaNoteHeader header) {
+        this.rawInfo = rawInfo;
+        this.header = header;
+        this.isDanceSingle = header.isDanceSingle();
+    }
 
-                .mutateValue(String::trim)
-                .mutateType((s) -> s.split(","))
-                .getValue();
+    /**
+     * Loads the measures from the raw info on the first call, later calls
+     * return the same measures. If this note info has been timed the notes
+     * are timed as they're loaded.
+     *
+     * @return Array of all Note Measures mapped.
+     */
+    public synchronized NoteMeasure[] getMeasures() {
+        if (measures == null) {
+            measures = loadMeasuresFromStr(rawInfo);
+            if (curTimingInfo != null) {
+                timeNotes(curTimingInfo);
+            }
+        }
+        return measures;
+    }
 
+    /**
+     * Loads every measure of the provided raw info.
+     *
+     * @param info The raw info to load from.
+     * @return All measures loaded to a complex type.
+     */
+    private static NoteMeasure[] loadMeasuresFromStr(final String info) {
         // Load measures, rows, and notes
-        return new EtternaNoteInfo(
-                info,
-                loadNotesFromStr(measures),
-                StringUtils.contains(info, DANCE_SINGLE_REGEX)
-        );
+        return loadNotesFromStr(splitMeasures(info));
+    }
+
+    /**
+     * Strips the header, comments and padding from the raw info and splits
+     * what remains into the raw measures. This is a single pass over the
+     * info rather than a regex chain, however what is stripped is the same:
+     * <ul>
+     *     <li>The header, from the first '#NOTES:' to the last ':'.</li>
+     *     <li>Comments, from the first char after the last ',' preceding
+     *     the comment, or the end of the last comment, to the end of the
+     *     line.</li>
+     *     <li>Tabs, form feeds and spaces.</li>
+     *     <li>A trailing ';' and then any outer whitespace.</li>
+     * </ul>
+     *
+     * @param info The raw info to split.
+     * @return The raw measures, each measure being the whitespace delimited
+     * rows of that measure.
+     */
+    static String[] splitMeasures(final String info) {
+        String text = info;
+        int from = 0;
+
+        // Header, '#NOTES:' must be followed by at least a single ':'
+        final int header = indexOfNotesTag(info);
+        final int headerEnd = info.lastIndexOf(':');
+        if (header != -1 && headerEnd >= header + NOTES_TAG.length()) {
+            if (header == 0) {
+                from = headerEnd + 1;
+            } else {
+                text = info.substring(0, header)
+                        + info.substring(headerEnd + 1);
+            }
+        }
+
+        final StringBuilder sb = new StringBuilder(text.length() - from);
+        final int end = text.length();
+
+        // Comments
+        int comment = text.indexOf(COMMENT_START, from);
+        while (comment != -1) {
+            final int start
+                    = Math.max(from, text.lastIndexOf(',', comment) + 1);
+            int next = text.indexOf(',', comment);
+            if (next == -1) {
+                next = end;
+            }
+
+            // Greedy so the comment starts at the last '//' before the ','
+            int lineEnd = text.lastIndexOf(COMMENT_START, next - 2) + 2;
+            while (lineEnd < end && !isLineTerminator(text.charAt(lineEnd))) {
+                ++lineEnd;
+            }
+
+            appendStripped(sb, text, from, start);
+            from = lineEnd;
+            comment = text.indexOf(COMMENT_START, from);
+        }
+        appendStripped(sb, text, from, end);
+
+        final int length = sb.length();
+        if (length > 0 && sb.charAt(length - 1) == ';') {
+            sb.setLength(length - 1);
+        }
+
+        return sb.toString().trim().split(",");
+    }
+
+    /**
+     * Finds the first '#NOTES:' ignoring the case of ASCII letters.
+     *
+     * @param info The raw info.
+     * @return The index of the tag, or -1 if it isn't present.
+     */
+    private static int indexOfNotesTag(final String info) {
+        final int last = info.length() - NOTES_TAG.length();
+        for (int i = info.indexOf('#'); i != -1 && i <= last;
+             i = info.indexOf('#', i + 1)) {
+            boolean isTag = true;
+            for (int j = 1; j < NOTES_TAG.length() && isTag; ++j) {
+                final char c = info.charAt(i + j);
+                final char expected = NOTES_TAG.charAt(j);
+                isTag = c == expected
+                        || (Character.isLetter(expected)
+                        && c == Character.toLowerCase(expected));
+            }
+
+            if (isTag) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends the range of the raw info to the builder without any tabs,
+     * form feeds or spaces.
+     *
+     * @param sb The builder to append to.
+     * @param info The raw info.
+     * @param start The start of the range (inclusive).
+     * @param end The end of the range (exclusive).
+     */
+    private static void appendStripped(final StringBuilder sb,
+                                       final String info,
+                                       final int start,
+                                       final int end) {
+        for (int i = start; i < end; ++i) {
+            final char c = info.charAt(i);
+            if (c != '\t' && c != '\f' && c != ' ') {
+                sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * @param c The char to test.
+     * @return {@code true} iff the char ends a line, that is, it isn't
+     * matched by the regex '.'.
+     */
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085'
+                || c == '\u2028' || c == '\u2029';
     }
 
     /**
@@ -143,7 +297,7 @@ public class EtternaNoteInfo {
      * @return Stream of all Measures.
      */
     public Stream<NoteMeasure> stream() {
-        return Arrays.stream(measures);
+        return Arrays.stream(getMeasures());
     }
 
     /**
@@ -169,33 +323,7 @@ public class EtternaNoteInfo {
      *                               timed.
      */
     public String getChartKey() {
-
-        if (curTimingInfo == null) {
-            throw new IllegalStateException("Chart not timed: " + this);
-        }
-
-        final StringBuilder blob = new StringBuilder();
-        forEachNote((measure, row) -> {
-            if (!row.isEmpty()) {
-
-                // For all non-empty rows
-                row.stream().forEach(note -> {
-                    if (!note.getStartNote().isHoldTail()) {
-                        blob.append(note.getStartNote().ordinal());
-                    } else {
-                        blob.append(0);
-                    }
-                });
-
-                // Magic number
-                blob.append(
-                        (int) (row.getBpm().getValue().doubleValue()
-                                + NUMBER_PROBABLY_PULLED_OUT_OF_SOMEONES_ASS)
-                );
-            }
-        });
-
-        return "X" + DigestUtils.sha1Hex(blob.toString());
+        return getChartKeys().getChartKey();
     }
 
     /**
@@ -208,44 +336,77 @@ public class EtternaNoteInfo {
      *                               timed.
      */
     public String getChartKey4K() {
+        return getChartKeys().getChartKey4K();
+    }
 
+    /**
+     * Calculates both chart keys with the current timing data information on
+     * the first call, later calls with the same timing return the same keys.
+     * The keys are computed from the raw info so no notes are loaded.
+     *
+     * @return The chart keys of the current state of the note info.
+     * @throws IllegalStateException If this timing info has not yet been
+     *                               timed.
+     */
+    public synchronized ChartKeys getChartKeys() {
         if (curTimingInfo == null) {
             throw new IllegalStateException("Chart not timed: " + this);
         }
 
-        //
-        // This exists because Etterna treats Dance-single as 4k, even if the
-        // number of columns mapped is greater.
-        //
-
-        final int keyCount = 4;
-        final StringBuilder blob = new StringBuilder();
-        forEachNote((measure, row) -> {
-
-            if (!row.stream()
-                    .limit(keyCount)
-                    .map(Note::getStartNote)
-                    .allMatch(x -> x.isEmpty() || x.isHoldTail())) {
-
-                // For all non-empty rows
-                row.stream().map(Note::getStartNote)
-                        .limit(keyCount).forEach(note -> {
-                            if (!note.isHoldTail()) {
-                                blob.append(note.ordinal());
-                            } else {
-                                blob.append(0);
-                            }
-                        });
-
-                // Magic number
-                blob.append(
-                        (int) (row.getBpm().getValue().doubleValue()
-                                + NUMBER_PROBABLY_PULLED_OUT_OF_SOMEONES_ASS)
-                );
-            }
-        });
+        if (chartKeys == null) {
+            chartKeys = getChartKeys(curTimingInfo);
+        }
+        return chartKeys;
+    }
+
+    /**
+     * Calculates both chart keys for the provided timing, neither this note
+     * info nor its notes are modified.
+     *
+     * @param timingInfo The timing to find the BPM of each row with.
+     * @return The chart keys with the provided timing.
+     */
+    public ChartKeys getChartKeys(@NonNull final EtternaTiming timingInfo) {
+        return ChartKeys.fromRaw(rawInfo, timingInfo);
+    }
 
-        return "X" + DigestUtils.sha1Hex(blob.toString());
+    /**
+     * Loads the columnar chart of this note info on the first call, later
+     * calls return the same chart. The chart is read from the raw info so the
+     * measures don't have to be loaded.
+     *
+     * @return The timing independent chart of this note info.
+     */
+    public synchronized NoteChart getChart() {
+        if (chart == null) {
+            chart = NoteChart.from(this);
+        }
+        return chart;
+    }
+
+    /**
+     * @return The chart timed with the current timing info.
+     * @throws IllegalStateException If this timing info has not yet been
+     *                               timed.
+     */
+    public TimedNoteChart getTimedChart() {
+        if (curTimingInfo == null) {
+            throw new IllegalStateException("Chart not timed: " + this);
+        }
+
+        return getChart().timed(curTimingInfo);
+    }
+
+    /**
+     * Times the chart of this note info without modifying this note info, so
+     * unlike {@link #timeNotesWith(EtternaTiming)} this is safe to call
+     * concurrently with different timings.
+     *
+     * @param timingInfo The timing to time the chart with.
+     * @return Immutable timed view of the chart.
+     */
+    public TimedNoteChart timedWith(@NonNull final EtternaTiming timingInfo) {
+        return getChart().timed(timingInfo);
     }
 
     /**
@@ -277,15 +438,20 @@ public class EtternaNoteInfo {
     }
 
     /**
-     * Times this note info with the provided timing data.
+     * Times this note info with the provided timing data. If the measures
+     * haven't been loaded yet they're timed once they are, so the chart keys
+     * can be queried without ever loading the notes.
      *
      * @param timingInfo The info to time this note info with.
      * @return This same reference for clarity of an internal change.
      */
-    public EtternaNoteInfo timeNotesWith(
+    public synchronized EtternaNoteInfo timeNotesWith(
             @NonNull final EtternaTiming timingInfo) {
         this.curTimingInfo = timingInfo;
-        return timeNotes(timingInfo);
+        this.chartKeys = null;
+
+        // Measures not yet loaded are timed when they are
+        return measures == null ? this : timeNotes(timingInfo);
     }
 
     /**
@@ -297,6 +463,7 @@ public class EtternaNoteInfo {
      */
     private EtternaNoteInfo timeNotes(@NonNull final EtternaTiming timingInfo) {
         final TimingSequence sequence = new TimingSequence();
+        final EtternaTiming.Cursor cursor = timingInfo.cursor();
 
         // Hold flags
         final Note[] flags = new Note[MAX_COLUMNS];
@@ -331,8 +498,8 @@ public class EtternaNoteInfo {
                 });
 
                 // Update timing
-                final BPM curBpm
-                        = timingInfo.getLatest(sequence.getCurBeatScaled());
+                cursor.advanceTo(sequence.getCurBeatHundredths());
+                final BPM curBpm = cursor.getBpm();
                 row.setBpm(curBpm);
 
                 sequence.advanceByNote(
@@ -358,8 +525,58 @@ public class EtternaNoteInfo {
      */
     public Optional<CacheStepsResult> queryStepsCache(
             @NonNull final CacheDB db) throws SQLException {
-        final String key = isDanceSingle ? getChartKey4K() : getChartKey();
-        return db.getStepCacheFor(key);
+        return db.getStepCacheFor(getStepsCacheKey(db));
+    }
+
+    /**
+     * Gets the chart key the cached step information of this chart is held
+     * under, so that many charts can be looked up at once. For this to work
+     * the chart must be timed using the 1.0x rate timing information.
+     *
+     * @param db The database the key is for, its key store is consulted.
+     * @return The chart key used by {@link #queryStepsCache(CacheDB)}.
+     * @throws SQLException If querying, or updating, the key store fails.
+     * @see CacheDB#getStepCacheFor(java.util.Collection)
+     */
+    public String getStepsCacheKey(@NonNull final CacheDB db)
+            throws SQLException {
+        final ChartKeys keys = getChartKeys(db.getKeyStore());
+        return isDanceSingle
+                ? keys.getChartKey4K()
+                : keys.getChartKey();
+    }
+
+    /**
+     * Gets the chart keys with the current timing info, consulting the store
+     * first if this is timed with the 1.0 rate timing of the parent file.
+     * Computed keys are added to the store.
+     *
+     * @param store The store to consult, can be null.
+     * @return The chart keys of the current state of the note info.
+     * @throws SQLException If querying, or updating, the store fails.
+     * @throws IllegalStateException If this timing info has not yet been
+     *                               timed.
+     */
+    private ChartKeys getChartKeys(final ChartKeyStore store)
+            throws SQLException {
+        if (store == null
+                || parent == null
+                || curTimingInfo != parent.getTimingInfo()) {
+            return getChartKeys();
+        }
+
+        final File smFile = parent.getSmFile();
+        final FileFingerprint parsed = parent.getFingerprint();
+        final String hash = parent.getContentHash();
+        final Optional<StoredChartKeys> stored
+                = store.get(smFile, parsed, hash, difficultyIndex);
+        if (stored.isPresent()) {
+            return stored.get().getChartKeys();
+        }
+
+        final ChartKeys keys = getChartKeys();
+        store.put(smFile, parsed, hash, difficultyIndex, keys, isDanceSingle);
+        return keys;
     }
 
     /**
@@ -0,0 +1,323 @@
+package com.ry.etterna.note;
+
+import com.ry.etterna.reader.EtternaTiming;
+import com.ry.vsrg.sequence.TimingSequence;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Columnar representation of a chart, that is, rather than a Note for every
+ * column of every row, each property of the chart is stored in its own
+ * primitive array indexed by row. Nothing here depends on the timing so a
+ * single chart is shared by the {@link TimedNoteChart} of every rate.
+ *
+ * @author -Ry
+ */
+public class NoteChart {
+
+    /**
+     * All note types in ordinal order.
+     */
+    static final NoteType[] TYPES = NoteType.values();
+
+    /**
+     * The number of columns in every row.
+     */
+    @Getter
+    private final int numColumns;
+
+    /**
+     * The number of rows in the chart.
+     */
+    @Getter
+    private final int numRows;
+
+    /**
+     * The NoteType ordinal of every column of every row, row major.
+     */
+    private final byte[] types;
+
+    /**
+     * The tap/hold-head bits of every row, bit 'n' is column 'n'.
+     */
+    private final int[] masks;
+
+    /**
+     * The first row of every measure followed by the number of rows.
+     */
+    private final int[] measureStarts;
+
+    /**
+     * The cells (row * numColumns + column) that open a hold, ascending.
+     */
+    private final int[] holdCells;
+
+    /**
+     * The row that closes the hold of the same index in holdCells.
+     */
+    private final int[] holdEndRows;
+
+    /**
+     * The beat of every row in hundredths of a beat rounded up, this is what
+     * the BPM of a row is looked up with.
+     */
+    private final long[] beats;
+
+    /**
+     * Loads the chart of the provided note info. The chart is read straight
+     * from the raw measures, so no Note objects are ever created.
+     *
+     * @param info The note info to load.
+     * @return The chart.
+     * @throws IllegalStateException If the raw notes are malformed.
+     */
+    public static NoteChart from(@NonNull final EtternaNoteInfo info) {
+        return new NoteChart(EtternaNoteInfo.splitMeasures(info.getRawInfo()));
+    }
+
+    /**
+     * @param rawMeasures The whitespace delimited rows of every measure.
+     */
+    private NoteChart(final String[] rawMeasures) {
+
+        // Count first so that everything is allocated exactly once
+        int rowCount = 0;
+        int colCount = -1;
+        for (final String m : rawMeasures) {
+            int i = NoteMeasure.skipWhitespace(m, 0, m.length());
+            do {
+                final int end = NoteMeasure.skipRow(m, i, m.length());
+                if (colCount == -1) {
+                    colCount = end - i;
+                }
+                checkRow(m, i, end, colCount);
+                ++rowCount;
+                i = NoteMeasure.skipWhitespace(m, end, m.length());
+            } while (i < m.length());
+        }
+
+        this.numColumns = colCount;
+        this.numRows = rowCount;
+        this.types = new byte[rowCount * colCount];
+        this.masks = new int[rowCount];
+        this.measureStarts = new int[rawMeasures.length + 1];
+
+        // Wider rows can't be masked, getMask throws for them instead
+        final boolean isMapped = colCount <= NoteRow.MAX_MAPPED_COLUMNS;
+
+        // Load rows
+        int row = 0;
+        for (int mi = 0; mi < rawMeasures.length; ++mi) {
+            final String m = rawMeasures[mi];
+            measureStarts[mi] = row;
+
+            int i = NoteMeasure.skipWhitespace(m, 0, m.length());
+            do {
+                final int base = row * colCount;
+                int mask = 0;
+                for (int col = 0; col < colCount; ++col) {
+                    final NoteType type = NoteType.of(m.charAt(i + col));
+                    types[base + col] = (byte) type.ordinal();
+                    if ((type.isTap() || type.isHoldHead()) && isMapped) {
+                        mask |= 1 << col;
+                    }
+                }
+                masks[row] = mask;
+
+                ++row;
+                i = NoteMeasure.skipWhitespace(
+                        m, i + colCount, m.length()
+                );
+            } while (i < m.length());
+        }
+        measureStarts[rawMeasures.length] = row;
+
+        // Pair holds, any two hold notes in a column close each other
+        final int[] open = new int[colCount];
+        Arrays.fill(open, -1);
+        int[] cells = new int[16];
+        int[] ends = new int[16];
+        int holdCount = 0;
+        for (int r = 0; r < rowCount; ++r) {
+            for (int col = 0; col < colCount; ++col) {
+                if (!TYPES[types[r * colCount + col]].isHold()) {
+                    continue;
+                }
+
+                if (open[col] == -1) {
+                    open[col] = r * colCount + col;
+                } else {
+                    if (holdCount == cells.length) {
+                        cells = Arrays.copyOf(cells, holdCount * 2);
+                        ends = Arrays.copyOf(ends, holdCount * 2);
+                    }
+                    cells[holdCount] = open[col];
+                    ends[holdCount] = r;
+                    ++holdCount;
+                    open[col] = -1;
+                }
+            }
+        }
+
+        // Closed in row order, looked up in cell order
+        final long[] pairs = new long[holdCount];
+        for (int i = 0; i < holdCount; ++i) {
+            pairs[i] = ((long) cells[i] << Integer.SIZE) | ends[i];
+        }
+        Arrays.sort(pairs);
+        this.holdCells = new int[holdCount];
+        this.holdEndRows = new int[holdCount];
+        for (int i = 0; i < holdCount; ++i) {
+            holdCells[i] = (int) (pairs[i] >>> Integer.SIZE);
+            holdEndRows[i] = (int) pairs[i];
+        }
+
+        // Beats only depend on the measure sizes
+        this.beats = new long[rowCount];
+        final TimingSequence sequence = new TimingSequence();
+        for (int mi = 0; mi < rawMeasures.length; ++mi) {
+            final int size = getMeasureSize(mi);
+            for (int r = measureStarts[mi]; r < measureStarts[mi + 1]; ++r) {
+                beats[r] = sequence.getCurBeatHundredths();
+                sequence.advanceBeatByNote(size);
+            }
+        }
+    }
+
+    /**
+     * Times this chart with the provided timing, this chart is shared and
+     * not modified so any number of timings can be applied concurrently.
+     *
+     * @param timing The timing info to time the chart with.
+     * @return Immutable timed view of this chart.
+     */
+    public TimedNoteChart timed(@NonNull final EtternaTiming timing) {
+        return new TimedNoteChart(this, timing);
+    }
+
+    /**
+     * @param raw The raw measure.
+     * @param start The start of the row (inclusive).
+     * @param end The end of the row (exclusive).
+     * @param numCols The number of columns the row should have.
+     * @throws IllegalStateException If the row is malformed.
+     */
+    static void checkRow(final String raw,
+                         final int start,
+                         final int end,
+                         final int numCols) {
+        if (end == start) {
+            throw new IllegalStateException(
+                    "Must have atleast a single note column..."
+            );
+        }
+
+        if (!NoteType.isOnlyReserved(raw, start, end)) {
+            throw new IllegalStateException("Not entirely known char "
+                    + "sequence: " + raw.substring(start, end));
+        }
+
+        if (end - start != numCols) {
+            throw new IllegalStateException(String.format(
+                    "Note Row Malformed expected size '%s' but got '%s'%n",
+                    numCols,
+                    raw.substring(start, end)
+            ));
+        }
+    }
+
+    /**
+     * @return The number of measures in the chart.
+     */
+    public int getNumMeasures() {
+        return measureStarts.length - 1;
+    }
+
+    /**
+     * @param measure The measure index.
+     * @return The first row of the measure.
+     */
+    public int getMeasureStart(final int measure) {
+        return measureStarts[measure];
+    }
+
+    /**
+     * @param measure The measure index.
+     * @return The number of rows in the measure.
+     */
+    public int getMeasureSize(final int measure) {
+        return measureStarts[measure + 1] - measureStarts[measure];
+    }
+
+    /**
+     * @param row The row index.
+     * @param col The column index.
+     * @return The note type at the provided row and column.
+     */
+    public NoteType getType(final int row, final int col) {
+        return TYPES[types[row * numColumns + col]];
+    }
+
+    /**
+     * @param row The row index.
+     * @return The tap/hold-head bits of the row.
+     * @throws IllegalStateException If the chart has more than 32 columns.
+     * @see NoteRow#getNoteMapping()
+     */
+    public int getMask(final int row) {
+        if (numColumns > NoteRow.MAX_MAPPED_COLUMNS) {
+            throw new IllegalStateException(
+                    "Too many columns to map: " + numColumns
+            );
+        }
+        return masks[row];
+    }
+
+    /**
+     * @param row The row index.
+     * @return The beat of the row in hundredths of a beat rounded up.
+     */
+    public long getBeatHundredths(final int row) {
+        return beats[row];
+    }
+
+    /**
+     * @param row The row index of the hold head.
+     * @param col The column index of the hold head.
+     * @return The row that closes the hold, or -1 if the note doesn't open
+     * a hold.
+     */
+    public int getHoldEndRow(final int row, final int col) {
+        final int i = Arrays.binarySearch(holdCells, row * numColumns + col);
+        return i < 0 ? -1 : holdEndRows[i];
+    }
+
+    /**
+     * @param row The row index.
+     * @return {@code true} iff all Notes for this Row are Hold Tail, or Empty.
+     * @see NoteRow#isEmpty()
+     */
+    public boolean isEmpty(final int row) {
+        return isEmpty(row, numColumns);
+    }
+
+    /**
+     * @param row The row index.
+     * @param keyCount The number of columns to test.
+     * @return {@code true} iff the first 'keyCount' notes for this row are
+     * Hold Tail, or Empty.
+     */
+    boolean isEmpty(final int row, final int keyCount) {
+        final int base = row * numColumns;
+        for (int col = 0; col < keyCount; ++col) {
+            final NoteType type = TYPES[types[base + col]];
+            if (!type.isEmpty() && !type.isHoldTail()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
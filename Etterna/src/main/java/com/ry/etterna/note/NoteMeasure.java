@@ -22,14 +22,33 @@ public class NoteMeasure extends Measure<Note> implements Iterable<NoteRow> {
      * the Note Types.
      */
     public static NoteMeasure initFromStr(final String measure) {
-        final String[] rows = measure.split("\\s+");
-        final NoteRow[] noteRows = new NoteRow[rows.length];
+        return initFromStr(measure, 0, measure.length());
+    }
+
+    /**
+     * Loads a slice of a RAW Etterna Note Measure, rows are separated by
+     * whitespace and are read in place without copying the slice.
+     *
+     * @param raw The sequence containing the RAW Note measure.
+     * @param start The start index of the measure (inclusive).
+     * @param end The end index of the measure (exclusive).
+     * @return Loaded note measure that consists of none of the timing data only
+     * the Note Types.
+     */
+    public static NoteMeasure initFromStr(final CharSequence raw,
+                                          final int start,
+                                          final int end) {
+        final NoteRow[] noteRows = new NoteRow[Math.max(1, countRows(
+                raw, start, end
+        ))];
 
         // Load rows
         int index = 0;
         int numCols = -1;
-        for (final String row : rows) {
-            noteRows[index] = NoteRow.loadFromStr(row.trim());
+        int i = skipWhitespace(raw, start, end);
+        do {
+            final int rowEnd = skipRow(raw, i, end);
+            noteRows[index] = NoteRow.loadFromStr(raw, i, rowEnd);
 
             // Set size
             if (numCols == -1) {
@@ -46,11 +65,71 @@ public class NoteMeasure extends Measure<Note> implements Iterable<NoteRow> {
             }
 
             ++index;
-        }
+            i = skipWhitespace(raw, rowEnd, end);
+        } while (i < end);
 
         return new NoteMeasure(noteRows);
     }
 
+    /**
+     * @param raw The sequence containing the measure.
+     * @param start The start index of the measure (inclusive).
+     * @param end The end index of the measure (exclusive).
+     * @return The number of whitespace separated rows in the measure.
+     */
+    private static int countRows(final CharSequence raw,
+                                 final int start,
+                                 final int end) {
+        int count = 0;
+        int i = skipWhitespace(raw, start, end);
+        while (i < end) {
+            ++count;
+            i = skipWhitespace(raw, skipRow(raw, i, end), end);
+        }
+        return count;
+    }
+
+    /**
+     * @param raw The sequence to walk.
+     * @param start The index to start from.
+     * @param end The index to stop at.
+     * @return The index of the first non-whitespace character, or end.
+     */
+    static int skipWhitespace(final CharSequence raw,
+                              final int start,
+                              final int end) {
+        int i = start;
+        while (i < end && isWhitespace(raw.charAt(i))) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * @param raw The sequence to walk.
+     * @param start The index to start from.
+     * @param end The index to stop at.
+     * @return The index of the first whitespace character, or end.
+     */
+    static int skipRow(final CharSequence raw,
+                       final int start,
+                       final int end) {
+        int i = start;
+        while (i < end && !isWhitespace(raw.charAt(i))) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * @param c The character to test.
+     * @return {@code true} iff the character is regex whitespace '\\s'.
+     */
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n'
+                || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
     /**
      * Constructs the note measure from the Note Rows.
      *
@@ -18,7 +18,14 @@ import java.util.Map;
 public class NoteRow extends Row<Note> implements Iterable<Note> {
 
     /**
-     * Look up table of String note mappings to the unsigned note value.
+     * The maximum number of columns that can be represented by the note
+     * mapping.
+     */
+    public static final int MAX_MAPPED_COLUMNS = Integer.SIZE;
+
+    /**
+     * Look up table of String note mappings to the unsigned note value, this
+     * is the same value as {@link #getNoteMapping()} for 4 columns.
      */
     public static final Map<String, Integer> NOTE_MAPPING = new HashMap<>();
 
@@ -43,24 +50,47 @@ public class NoteRow extends Row<Note> implements Iterable<Note> {
      * @return Newly instantiated note row.
      */
     public static NoteRow loadFromStr(final String rawRow) {
-        // Input String: '0130' etc
+        return loadFromStr(rawRow, 0, rawRow.length());
+    }
+
+    /**
+     * Processes a slice of an Etterna note row into a Note Row instance
+     * without copying the slice.
+     *
+     * @param raw The sequence containing the raw note row.
+     * @param start The start index of the row (inclusive).
+     * @param end The end index of the row (exclusive).
+     * @return Newly instantiated note row.
+     */
+    public static NoteRow loadFromStr(final CharSequence raw,
+                                      final int start,
+                                      final int end) {
+        // Input Slice: '0130' etc
 
-        if (!NoteType.isOnlyReserved(rawRow)) {
+        if (!NoteType.isOnlyReserved(raw, start, end)) {
             throw new IllegalStateException("Not entirely known char "
-                    + "sequence: " + rawRow);
+                    + "sequence: " + raw.subSequence(start, end));
         }
 
-        final Note[] notes = new Note[rawRow.length()];
-        int index = 0;
-        for (final char c : rawRow.toCharArray()) {
-            notes[index] = new Note(NoteType.of(String.valueOf(c)));
-            notes[index].setColumn(index);
-            ++index;
+        final Note[] notes = new Note[end - start];
+        for (int i = 0; i < notes.length; ++i) {
+            notes[i] = new Note(NoteType.of(raw.charAt(start + i)));
+            notes[i].setColumn(i);
         }
 
         return new NoteRow(notes);
     }
 
+    /**
+     * The tap/hold-head bits of this row, bit 'n' is column 'n'.
+     */
+    private final int noteMapping;
+
+    /**
+     * True if all Notes for this Row are Hold Tail, or Empty.
+     */
+    private final boolean isEmpty;
+
     /**
      * @param notes The notes of this row.
      */
@@ -69,25 +99,36 @@ public class NoteRow extends Row<Note> implements Iterable<Note> {
         if (notes.length == 0) throw new IllegalStateException(
                 "Must have atleast a single note column..."
         );
-    }
 
-    /**
-     * @return {@code true} iff all Notes for this Row are Hold Head, or Empty.
-     */
-    public boolean isEmpty() {
-        for (final Note note : getNotes()) {
-            switch (note.getStartNote()) {
+        int mapping = 0;
+        boolean empty = true;
+        for (int i = 0; i < notes.length; ++i) {
+            final NoteType type = notes[i].getStartNote();
+            if ((type.isTap() || type.isHoldHead())
+                    && i < MAX_MAPPED_COLUMNS) {
+                mapping |= 1 << i;
+            }
+
+            switch (type) {
                 case TAP:
                 case HOLD_HEAD:
                 case FAKE:
                 case MINE:
                 case AUTO_KEY_SOUND:
                 case LIFT:
-                    return false;
+                    empty = false;
             }
         }
 
-        return true;
+        this.noteMapping = mapping;
+        this.isEmpty = empty;
+    }
+
+    /**
+     * @return {@code true} iff all Notes for this Row are Hold Tail, or Empty.
+     */
+    public boolean isEmpty() {
+        return isEmpty;
     }
 
     /**
@@ -108,17 +149,16 @@ public class NoteRow extends Row<Note> implements Iterable<Note> {
     }
 
     /**
-     * @return The note mapping value for this row of notes.
+     * @return The note mapping value for this row of notes, that is, the
+     * tap/hold-head bits where bit 'n' is column 'n'.
+     * @throws IllegalStateException If the row has more than 32 columns.
      */
     public int getNoteMapping() {
-        final StringBuilder sb = new StringBuilder();
-        final char note = 'x';
-        final char empty = '-';
-
-        forEach(x -> sb.append(
-                (x.getStartNote().isTap() || x.getStartNote().isHoldHead())
-                ? note
-                : empty));
-        return NOTE_MAPPING.get(sb.toString());
+        if (size() > MAX_MAPPED_COLUMNS) {
+            throw new IllegalStateException(
+                    "Too many columns to map: " + size()
+            );
+        }
+        return noteMapping;
     }
 }
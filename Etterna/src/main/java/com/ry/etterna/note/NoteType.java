@@ -23,6 +23,18 @@ public enum NoteType {
      */
     public static final String RESERVED_REGEX = "[0-4MLKF]";
 
+    /**
+     * Look up table of reserved ASCII characters to their note type, any
+     * character not in the table is not reserved.
+     */
+    private static final NoteType[] RESERVED_LOOKUP = new NoteType[128];
+
+    static {
+        for (final char c : "01234MLKF".toCharArray()) {
+            RESERVED_LOOKUP[c] = of(String.valueOf(c));
+        }
+    }
+
     /**
      * The regex that matches this note type.
      */
@@ -38,8 +50,47 @@ public enum NoteType {
      * @return {@code true} iff the provided string contains only reserved
      * characters.
      */
-    public static boolean isOnlyReserved(final String s) {
-        return s.replaceAll(RESERVED_REGEX, "").length() == 0;
+    public static boolean isOnlyReserved(final CharSequence s) {
+        return isOnlyReserved(s, 0, s.length());
+    }
+
+    /**
+     * @param s The sequence to test for reserved characters.
+     * @param start The start index of the slice to test (inclusive).
+     * @param end The end index of the slice to test (exclusive).
+     * @return {@code true} iff the slice contains only reserved characters.
+     */
+    public static boolean isOnlyReserved(final CharSequence s,
+                                         final int start,
+                                         final int end) {
+        for (int i = start; i < end; ++i) {
+            if (!isReserved(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param c The character to test.
+     * @return {@code true} iff the character is a known reserved Etterna
+     * Note character.
+     */
+    public static boolean isReserved(final char c) {
+        return c < RESERVED_LOOKUP.length && RESERVED_LOOKUP[c] != null;
+    }
+
+    /**
+     * Finds the note type for the specified character with a single table
+     * look up, this is the same as {@link #of(String)} for a single
+     * character.
+     *
+     * @param c The aforementioned character.
+     * @return The note type of the character, any non-reserved character is
+     * {@link #EMPTY}.
+     */
+    public static NoteType of(final char c) {
+        return isReserved(c) ? RESERVED_LOOKUP[c] : EMPTY;
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.ry.etterna.note;
+
+import com.ry.etterna.reader.EtternaTiming;
+import com.ry.vsrg.BPM;
+import com.ry.vsrg.sequence.TimingSequence;
+import lombok.Getter;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Immutable view of a {@link NoteChart} timed with a single timing, that is,
+ * a single rate. Only the per row BPM and time are stored, the notes are
+ * shared with the chart.
+ *
+ * @author -Ry
+ */
+public class TimedNoteChart {
+
+    /**
+     * Scale factor from the 3 decimal time to Milliseconds.
+     */
+    private static final float MILLIS_FACTOR = 1000.F;
+
+    /**
+     * The chart this is a view of.
+     */
+    @Getter
+    private final NoteChart chart;
+
+    /**
+     * The timing used to time the chart.
+     */
+    @Getter
+    private final EtternaTiming timing;
+
+    /**
+     * The BPM segments of the timing.
+     */
+    private final BPM[] bpms;
+
+    /**
+     * The BPM segment index of every row.
+     */
+    private final int[] bpmIndices;
+
+    /**
+     * The start time of every row in Milliseconds.
+     */
+    private final long[] times;
+
+    /**
+     * The Chart keys of this chart, computed on first request.
+     */
+    private ChartKeys chartKeys;
+
+    /**
+     * @param chart The chart to time.
+     * @param timing The timing to time the chart with.
+     */
+    TimedNoteChart(final NoteChart chart, final EtternaTiming timing) {
+        this.chart = chart;
+        this.timing = timing;
+        this.bpms = timing.getBpms().toArray(new BPM[0]);
+        this.bpmIndices = new int[chart.getNumRows()];
+        this.times = new long[chart.getNumRows()];
+
+        final TimingSequence sequence = new TimingSequence();
+        final EtternaTiming.Cursor cursor = timing.cursor();
+        for (int m = 0; m < chart.getNumMeasures(); ++m) {
+            final int start = chart.getMeasureStart(m);
+            final int size = chart.getMeasureSize(m);
+            for (int row = start; row < start + size; ++row) {
+                times[row] = sequence.getCurTimeMillis();
+
+                final int index = cursor.advanceTo(chart.getBeatHundredths(row));
+                bpmIndices[row] = index;
+                sequence.advanceByNote(size, bpms[index].getValue());
+            }
+        }
+    }
+
+    /**
+     * @param row The row index.
+     * @return The start time of the row in Milliseconds.
+     */
+    public long getTimeMillis(final int row) {
+        return times[row];
+    }
+
+    /**
+     * @param row The row index.
+     * @return The start time of the row in seconds.
+     */
+    public float getTimeSeconds(final int row) {
+        return times[row] / MILLIS_FACTOR;
+    }
+
+    /**
+     * @param row The row index.
+     * @return The BPM of the row.
+     */
+    public BPM getBpm(final int row) {
+        return bpms[bpmIndices[row]];
+    }
+
+    /**
+     * @param row The row index.
+     * @return The index of the BPM segment of the row.
+     */
+    public int getBpmIndex(final int row) {
+        return bpmIndices[row];
+    }
+
+    /**
+     * @return The Chart key of this chart.
+     * @see EtternaNoteInfo#getChartKey()
+     */
+    public String getChartKey() {
+        return getChartKeys().getChartKey();
+    }
+
+    /**
+     * @return The Chart key of this chart ignoring any column after the
+     * fourth.
+     * @see EtternaNoteInfo#getChartKey4K()
+     */
+    public String getChartKey4K() {
+        return getChartKeys().getChartKey4K();
+    }
+
+    /**
+     * Computes both chart keys, in a single pass over the rows, on the first
+     * call. Later calls return the same keys.
+     *
+     * @return The Chart keys of this chart.
+     */
+    public synchronized ChartKeys getChartKeys() {
+        if (chartKeys == null) {
+            final int[] bpmKeys = ChartKeys.bpmKeys(timing);
+            final ChartKeys.Hasher hasher = new ChartKeys.Hasher();
+            final NoteType[] types = new NoteType[chart.getNumColumns()];
+
+            for (int row = 0; row < chart.getNumRows(); ++row) {
+                for (int col = 0; col < types.length; ++col) {
+                    types[col] = chart.getType(row, col);
+                }
+                hasher.row(types, bpmKeys[bpmIndices[row]]);
+            }
+            chartKeys = hasher.toKeys();
+        }
+        return chartKeys;
+    }
+}
@@ -1,10 +1,12 @@
 package com.ry.etterna.reader;
 
+import com.ry.etterna.note.EtternaNoteHeader;
 import com.ry.etterna.note.EtternaNoteInfo;
 import com.ry.useful.property.ExtractedProperty;
 import com.ry.useful.property.Mapper;
 import com.ry.useful.property.PropertyReader;
 import com.ry.useful.property.SimpleStringProperty;
+import lombok.Getter;
 import lombok.NonNull;
 
 import java.io.File;
@@ -21,6 +23,12 @@ import java.util.stream.Collectors;
  */
 public class EtternaFileReader extends PropertyReader {
 
+    /**
+     * The fingerprint of the source file taken before it was read.
+     */
+    @Getter
+    private final FileFingerprint fingerprint;
+
     /**
      * Constructs the reader from the base file.
      *
@@ -28,7 +36,33 @@ public class EtternaFileReader extends PropertyReader {
      * @throws IOException If reading the file fails.
      */
     public EtternaFileReader(final @NonNull File file) throws IOException {
-        super(file);
+        this(file, LoadMode.DECODED);
+    }
+
+    /**
+     * Constructs the reader from the base file using the provided load mode.
+     *
+     * @param file The file to base this reader on.
+     * @param mode How the file should be loaded.
+     * @throws IOException If reading, or mapping the file fails.
+     */
+    public EtternaFileReader(final @NonNull File file,
+                             final @NonNull LoadMode mode) throws IOException {
+        this(file, mode, FileFingerprint.of(file));
+    }
+
+    /**
+     * @param file The file to base this reader on.
+     * @param mode How the file should be loaded.
+     * @param fingerprint The fingerprint of the file, taken before reading.
+     * @throws IOException If reading, or mapping the file fails.
+     */
+    private EtternaFileReader(final File file,
+                              final LoadMode mode,
+                              final FileFingerprint fingerprint)
+            throws IOException {
+        super(file, mode);
+        this.fingerprint = fingerprint;
 
         // foo.sm or foo.SM...
         if (!file.getName().matches("(?i).*?\\.(sm)|(ssc)")) {
@@ -96,6 +130,13 @@ public class EtternaFileReader extends PropertyReader {
         return getMany(EtternaProperty.NOTES, EtternaNoteInfo.class);
     }
 
+    /**
+     * @return The header of every notes section, without loading the notes.
+     */
+    public List<EtternaNoteHeader> getNoteHeaders() {
+        return getMany(EtternaProperty.NOTES_HEADER, EtternaNoteHeader.class);
+    }
+
     /**
      * @return The BPM timing information for this chart.
      */
@@ -140,4 +181,12 @@ public class EtternaFileReader extends PropertyReader {
     public String getContent() {
         return super.getContent();
     }
+
+    /**
+     * The SHA-1 of the content loaded from source.
+     */
+    @Override
+    public String getContentHash() {
+        return super.getContentHash();
+    }
 }
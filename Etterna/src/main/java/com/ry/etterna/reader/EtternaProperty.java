@@ -1,7 +1,7 @@
 package com.ry.etterna.reader;
 
+import com.ry.etterna.note.EtternaNoteHeader;
 import com.ry.etterna.note.EtternaNoteInfo;
-import com.ry.useful.MutatingValue;
 import com.ry.useful.property.Mapper;
 import com.ry.useful.property.NamedRegexProperty;
 import com.ry.useful.property.NamedRegexProperty.ExtractionMode;
@@ -11,11 +11,7 @@ import lombok.NonNull;
 import lombok.ToString;
 
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.ry.useful.property.NamedRegexProperty.ExtractionMode.MANY;
@@ -45,21 +41,14 @@ public enum EtternaProperty {
     BANNER(SINGLETON),
     OFFSET(SINGLETON),
 
-    // Little more complex, but just a lazy way to get the header
-    // information about the chart info
+    // Header fields of every notes block without the note data, this is
+    // the same tag as NOTES but is far cheaper to map
     NOTES_HEADER(new NamedRegexProperty(
             Pattern.compile("(?is)#NOTES:(.*?)(([;#])|$)"),
             1,
-            "NOTES_HEADER", MANY),
-            x -> MutatingValue.of(x)
-                    .mutateType(v -> v.split(":"))
-                    .mutateType(vs -> new LinkedList<>(List.of(vs)))
-                    .mutateValueIf(vs -> vs.size() > 4, vs -> {
-                        vs.removeLast();
-                        return vs;
-                    }).mutateType(vs -> vs.toArray(new String[0]))
-                    .getValue(),
-            String[].class
+            "NOTES_HEADER", MANY, "NOTES"),
+            EtternaNoteHeader::loadFromStr,
+            EtternaNoteHeader.class
     );
 
     /**
@@ -118,7 +107,8 @@ public enum EtternaProperty {
                 Pattern.compile(String.format(BASE_REGEX, name())),
                 group,
                 name(),
-                mode
+                mode,
+                name()
         );
         this.valueMapper = valueMapper;
         this.mappedClassType = mappedClassType;
@@ -3,6 +3,7 @@ package com.ry.etterna.reader;
 import com.ry.useful.MutatingValue;
 import com.ry.useful.StringUtils;
 import com.ry.vsrg.BPM;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
@@ -12,6 +13,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Stream;
@@ -40,10 +42,20 @@ public class EtternaTiming {
             = "(0|[1-9]\\d*)(\\.\\d+)?=(0|[1-9]\\d*)(\\.\\d+)?";
 
     /**
-     * List of all BPM's that have been processed.
+     * List of all BPM's that have been processed, in start time order. This
+     * is never exposed mutably as the segment table is built from it.
      */
     private final List<BPM> bpms;
 
+    /**
+     * The start of every BPM floored to 2 decimals in hundredths of a beat,
+     * in the same order as bpms; this is what rows are matched against.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final long[] startHundredths;
+
     /**
      * Takes the input string as the arguments to build an Etterna Timing
      * object.
@@ -94,12 +106,31 @@ public class EtternaTiming {
     /**
      * Constructs the etterna timing from BPM Values.
      *
-     * @param bpmList The BPM timing values.
+     * @param bpmList The BPM timing values, these are copied.
      */
     public EtternaTiming(final List<BPM> bpmList) {
-        this.bpms = bpmList;
+        this.bpms = new ArrayList<>(bpmList);
         // This just ensures that the bpms are ordered by start time
         this.bpms.sort(Comparator.comparing(BPM::getStartTime));
+
+        // Segment table
+        final int n = bpms.size();
+        this.startHundredths = new long[n];
+        for (int i = 0; i < n; ++i) {
+            final BPM cur = bpms.get(i);
+            // todo This might not be correct
+            startHundredths[i] = cur.getStartTime()
+                    .setScale(2, RoundingMode.FLOOR)
+                    .unscaledValue()
+                    .longValueExact();
+        }
+    }
+
+    /**
+     * @return Unmodifiable view of all BPM's, in start time order.
+     */
+    public List<BPM> getBpms() {
+        return Collections.unmodifiableList(bpms);
     }
 
     /**
@@ -110,25 +141,117 @@ public class EtternaTiming {
      * provided time.
      */
     public BPM getLatest(final BigDecimal curTime) {
-        for (int i = bpms.size(); i --> 0; ) {
-            final BPM cur = this.bpms.get(i);
+        return bpms.get(getLatestIndex(curTime));
+    }
 
-            // todo This might not be correct
-            final BigDecimal inter = cur.getStartTime().setScale(2,
-                    RoundingMode.FLOOR
-            );
-//            if (cur.getStartTime().compareTo(curTime) <= 0) {
-            if (inter.compareTo(curTime) <= 0) {
-                return cur;
+    /**
+     * Gets the index of the closest BPM that does not start after the
+     * provided time.
+     *
+     * @param curTime The aforementioned time.
+     * @return The index of the closest BPM to the specified time that is not
+     * greater than the provided time.
+     * @see #getLatest(BigDecimal)
+     */
+    public int getLatestIndex(final BigDecimal curTime) {
+        // Starts are whole hundredths, so flooring the time keeps the order
+        return getLatestIndex(curTime
+                .setScale(2, RoundingMode.FLOOR)
+                .unscaledValue()
+                .longValueExact()
+        );
+    }
+
+    /**
+     * Gets the index of the closest BPM that does not start after the
+     * provided beat, this is a binary search over the segment table.
+     *
+     * @param beatHundredths The beat in hundredths of a beat.
+     * @return The index of the closest BPM to the specified beat that is not
+     * greater than the provided beat.
+     */
+    public int getLatestIndex(final long beatHundredths) {
+        int lo = 0;
+        int hi = startHundredths.length;
+
+        // First start after the beat
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (startHundredths[mid] <= beatHundredths) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
             }
         }
 
-        // Could default to 0th index but eh.
-        throw new IllegalStateException(String.format(
-                "Unknown BPM For time: [%s], [%s]%n",
-                curTime,
-                toString()
-        ));
+        if (lo == 0) {
+            // Could default to 0th index but eh.
+            throw new IllegalStateException(String.format(
+                    "Unknown BPM For time: [%s], [%s]%n",
+                    BigDecimal.valueOf(beatHundredths, 2),
+                    toString()
+            ));
+        }
+        return lo - 1;
+    }
+
+    /**
+     * @return A new cursor positioned before the first BPM.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Finds the BPM of increasing beats, that is, the typical access pattern
+     * of timing a chart row by row. Each call only walks forward from the
+     * last BPM so timing an entire chart is linear in rows plus BPMs.
+     */
+    public final class Cursor {
+
+        /**
+         * The index of the current BPM, -1 if not yet positioned.
+         */
+        private int index = -1;
+
+        /**
+         * The beat the cursor was last moved to.
+         */
+        private long lastBeat = Long.MIN_VALUE;
+
+        /**
+         * Moves the cursor to the closest BPM that does not start after the
+         * provided beat. Moving backwards is allowed but falls back to a
+         * binary search.
+         *
+         * @param beatHundredths The beat in hundredths of a beat.
+         * @return The index of the BPM.
+         * @see #getLatestIndex(long)
+         */
+        public int advanceTo(final long beatHundredths) {
+            if (beatHundredths < lastBeat || index == -1) {
+                index = getLatestIndex(beatHundredths);
+            } else {
+                while (index + 1 < startHundredths.length
+                        && startHundredths[index + 1] <= beatHundredths) {
+                    ++index;
+                }
+            }
+
+            lastBeat = beatHundredths;
+            return index;
+        }
+
+        /**
+         * @return The BPM the cursor is at.
+         * @throws IllegalStateException If the cursor was never advanced.
+         */
+        public BPM getBpm() {
+            if (index == -1) {
+                throw new IllegalStateException("Cursor not positioned");
+            }
+            return bpms.get(index);
+        }
     }
 
     /**
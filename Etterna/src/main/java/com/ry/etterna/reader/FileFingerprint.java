@@ -0,0 +1,46 @@
+package com.ry.etterna.reader;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import java.io.File;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * The size and modified time of a file, taken before the file is read so
+ * that it identifies the content which was read. Content read from a file
+ * is only known to match what's on disk whilst the file still has the same
+ * fingerprint.
+ *
+ * @author -Ry
+ */
+@Value
+public class FileFingerprint {
+
+    /**
+     * The size of the file in bytes.
+     */
+    long size;
+
+    /**
+     * The last modified time of the file.
+     */
+    long lastModified;
+
+    /**
+     * @param file The file to fingerprint.
+     * @return The current fingerprint of the file.
+     */
+    public static FileFingerprint of(@NonNull final File file) {
+        return new FileFingerprint(file.length(), file.lastModified());
+    }
+
+    /**
+     * @param file The file to check.
+     * @return True if the file still has this fingerprint, that is, it has
+     * not been written to since.
+     */
+    public boolean isCurrent(@NonNull final File file) {
+        return size == file.length() && lastModified == file.lastModified();
+    }
+}
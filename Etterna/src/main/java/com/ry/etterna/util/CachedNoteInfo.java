@@ -4,19 +4,28 @@ import com.ry.etterna.EtternaFile;
 import com.ry.etterna.db.CacheDB;
 import com.ry.etterna.db.CacheStepsResult;
 import com.ry.etterna.msd.MSD;
+import com.ry.etterna.msd.MSDCalculator;
+import com.ry.etterna.msd.MinaCalc;
+import com.ry.etterna.msd.SkillSet;
 import com.ry.etterna.note.EtternaNoteInfo;
+import com.ry.etterna.note.TimedNoteChart;
 import com.ry.etterna.reader.EtternaTiming;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.math.RoundingMode;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 /**
@@ -28,20 +37,9 @@ import java.util.function.Consumer;
 public class CachedNoteInfo {
 
     /**
-     * Rounding mode for single radix mutations.
+     * The 1.0 rate in hundredths.
      */
-    private static final MathContext C
-            = new MathContext(1, RoundingMode.FLOOR);
-
-    /**
-     * Full rate increment.
-     */
-    private static final BigDecimal FULL_RATE = new BigDecimal("0.10", C);
-
-    /**
-     * Half rate increment.
-     */
-    private static final BigDecimal HALF_RATE = new BigDecimal("0.05", C);
+    private static final int NORMAL_RATE = 100;
 
     /**
      * Cache information for the Note Info.
@@ -53,6 +51,14 @@ public class CachedNoteInfo {
      */
     private final EtternaNoteInfo info;
 
+    /**
+     * The timed chart of this instance, if null the chart is timed with the
+     * current timing of the note info.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final TimedNoteChart chart;
+
     /**
      * Loads from the provided etterna chart and a cache database all proper
      * note info objects.
@@ -63,26 +69,94 @@ public class CachedNoteInfo {
      */
     public static List<CachedNoteInfo> from(final EtternaFile x,
                                             final CacheDB db) {
-        final List<CachedNoteInfo> xs = new ArrayList<>();
-        if (x.isStandard()) {
-            for (final EtternaNoteInfo info : x.getNoteInfo()) {
-                if (info.isDanceSingle()) {
-                    info.timeNotesWith(x.getTimingInfo());
-                    try {
-                        info.queryStepsCache(db).ifPresent(cache -> xs.add(
-                                new CachedNoteInfo(cache, info)
-                        ));
-
-                        // Skip on fail
-                    } catch (final SQLException e) {
-                        System.err.println("[SQL ERROR] " + x.getSmFile());
+        return from(List.of(x), db);
+    }
+
+    /**
+     * Loads from the provided etterna charts and a cache database all proper
+     * note info objects. The cache of every difficulty, of every chart, is
+     * looked up at once rather than with a query per difficulty. A file
+     * which fails to load is skipped without affecting the rest.
+     *
+     * @param xs The files to load from, such as every file of a pack.
+     * @param db The database to read cache from.
+     * @return List of all cached files, in the order of the provided files.
+     */
+    public static List<CachedNoteInfo> from(final Collection<EtternaFile> xs,
+                                            final CacheDB db) {
+        final List<EtternaNoteInfo> infos = new ArrayList<>();
+        final List<String> keys = new ArrayList<>();
+        for (final EtternaFile x : xs) {
+            if (!x.isStandard() || !x.hasDanceSingle()) {
+                continue;
+            }
+
+            final List<EtternaNoteInfo> fileInfos = new ArrayList<>();
+            final List<String> fileKeys = new ArrayList<>();
+            try {
+                for (final EtternaNoteInfo info : x.getNoteInfo()) {
+                    if (info.isDanceSingle()) {
+                        info.timeNotesWith(x.getTimingInfo());
+                        fileKeys.add(info.getStepsCacheKey(db));
+                        fileInfos.add(info);
                     }
                 }
+                infos.addAll(fileInfos);
+                keys.addAll(fileKeys);
+
+                // Skip the file on fail
+            } catch (final SQLException e) {
+                System.err.println("[SQL ERROR] " + x.getSmFile());
+            } catch (final IllegalStateException e) {
+                System.err.println("[SKIPPED] " + x.getSmFile());
+            }
+        }
+
+        Map<String, CacheStepsResult> caches;
+        try {
+            caches = db.getStepCacheFor(keys);
+        } catch (final SQLException e) {
+            System.err.println("[SQL ERROR] " + e.getMessage());
+            caches = getStepCacheEach(infos, keys, db);
+        }
+
+        final List<CachedNoteInfo> cached = new ArrayList<>();
+        for (int i = 0; i < infos.size(); ++i) {
+            final CacheStepsResult cache = caches.get(keys.get(i));
+            if (cache != null) {
+                cached.add(new CachedNoteInfo(cache, infos.get(i)));
             }
         }
+        return cached;
+    }
+
+    /**
+     * Finds the cached step data with a query per chart key, used when the
+     * batch query fails so that only the charts which fail are lost.
+     *
+     * @param infos The note info of every chart key.
+     * @param keys The chart keys to look for.
+     * @param db The database to read cache from.
+     * @return The found results keyed by chart key.
+     */
+    private static Map<String, CacheStepsResult> getStepCacheEach(
+            final List<EtternaNoteInfo> infos,
+            final List<String> keys,
+            final CacheDB db) {
+        final Map<String, CacheStepsResult> caches = new HashMap<>();
+        for (int i = 0; i < keys.size(); ++i) {
+            try {
+                final String key = keys.get(i);
+                db.getStepCacheFor(key).ifPresent(x -> caches.put(key, x));
 
-        // For all bad cases return null
-        return xs;
+                // Skip on fail
+            } catch (final SQLException e) {
+                System.err.println(
+                        "[SQL ERROR] " + infos.get(i).getParent().getSmFile()
+                );
+            }
+        }
+        return caches;
     }
 
     /**
@@ -91,8 +165,29 @@ public class CachedNoteInfo {
      */
     public CachedNoteInfo(final CacheStepsResult cache,
                           final EtternaNoteInfo info) {
+        this(cache, info, null);
+    }
+
+    /**
+     * @param cache The 1.0 cache.
+     * @param info The note info.
+     * @param chart The chart of the note info timed for a specific rate.
+     */
+    public CachedNoteInfo(final CacheStepsResult cache,
+                          final EtternaNoteInfo info,
+                          final TimedNoteChart chart) {
         this.cache = cache;
         this.info = info;
+        this.chart = chart;
+    }
+
+    /**
+     * @return The timed chart of this instance, or the chart timed with the
+     * current timing of the note info if none was provided.
+     * @throws IllegalStateException If neither is timed.
+     */
+    public TimedNoteChart getChart() {
+        return chart != null ? chart : info.getTimedChart();
     }
 
     /**
@@ -122,34 +217,32 @@ public class CachedNoteInfo {
      */
     public Optional<MSD> getMSDForRate(final String rate) {
         // 0.0567899... -> 0.05
-        final BigDecimal r = new BigDecimal(rate, MathContext.DECIMAL64)
-                .setScale(2, RoundingMode.HALF_EVEN);
+        return getMSDForRate(CacheStepsResult.toRateHundredths(
+                new BigDecimal(rate, MathContext.DECIMAL64)
+        ));
+    }
 
-        // Iff r % 0.1 == 0
-        if (r.remainder(FULL_RATE).compareTo(BigDecimal.ZERO) == 0) {
+    /**
+     * Same as {@link #getMSDForRate(String)} with the rate in hundredths.
+     *
+     * @param rate The rate to get, in hundredths.
+     * @return Optional containing the potential rate if present.
+     * @throws IllegalStateException If the provided rate is not a 0.1 or 0.05
+     *                               increment.
+     */
+    public Optional<MSD> getMSDForRate(final int rate) {
+        if (rate % CacheStepsResult.BASE_INCREMENT == 0) {
             return cache.getMSDForRate(rate);
 
-            // Iff r % 0.05 == 0
-        } else if (r.remainder(HALF_RATE).compareTo(BigDecimal.ZERO) == 0) {
-            final Optional<MSD> lower = cache.getMSDForRate(
-                    r.subtract(HALF_RATE, MathContext.DECIMAL64)
-                            .setScale(2, RoundingMode.HALF_EVEN).toString()
-            );
-            final Optional<MSD> upper = cache.getMSDForRate(
-                    r.add(HALF_RATE, MathContext.DECIMAL64)
-                            .setScale(2, RoundingMode.HALF_EVEN).toString()
-            );
-
-            if (lower.isPresent() && upper.isPresent()) {
-                return Optional.of(lower.get().interpolateMSD(upper.get()));
-            }
+        } else if (rate % CacheStepsResult.HALF_INCREMENT == 0) {
+            return cache.getInterpolatedMSD(rate);
 
             // Rate not allowed
         } else {
-            throw new IllegalStateException("Unsupported Rate: " + rate);
+            throw new IllegalStateException(
+                    "Unsupported Rate: " + BigDecimal.valueOf(rate, 2)
+            );
         }
-
-        return Optional.empty();
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -178,7 +271,8 @@ public class CachedNoteInfo {
 
     /**
      * For each rate in range which adheres to the MSD Filter rule, apply the
-     * given action.
+     * given action. The note info is never re-timed, every rate receives its
+     * own immutable timed chart through {@link #getChart()}.
      *
      * @param min The minimum rate.
      * @param max The maximum rate.
@@ -190,18 +284,133 @@ public class CachedNoteInfo {
                             final String max,
                             final BiPredicate<MSD, MSD> msdFilter,
                             final RatedChartHandler action) {
-        final MSD normal
-                = getMSDForRate("1.0").orElseThrow(RuntimeException::new);
-        final EtternaTiming baseTiming = getEtternaFile().getTimingInfo();
+        rates(min, max, msdFilter).forEach(x -> action.accept(
+                rated(x.rate()), x.rate(), x.msd()
+        ));
+    }
+
+    /**
+     * Same as {@link #forEachRate(String, String, BiPredicate,
+     * RatedChartHandler)} however the MSD of every rate is calculated, rather
+     * than read or interpolated from the cache. All rates are calculated in
+     * a single sweep, so any rate in 0.05 increments is accurate, including
+     * rates outside 0.7 to 2.0.
+     *
+     * @param min The minimum rate.
+     * @param max The maximum rate.
+     * @param calc The calculator to calculate the MSD with.
+     * @param msdFilter The MSD Filter, first argument is the 1.0 MSD, and the
+     * second one is the k-rate MSD.
+     * @param action The action to apply if the filter is true.
+     */
+    public void forEachRate(final String min,
+                            final String max,
+                            final MSDCalculator calc,
+                            final BiPredicate<MSD, MSD> msdFilter,
+                            final RatedChartHandler action) {
+        rates(min, max, calc, msdFilter).forEach(x -> action.accept(
+                rated(x.rate()), x.rate(), x.msd()
+        ));
+    }
+
+    /**
+     * Same as {@link #forEachRate(String, String, BiPredicate,
+     * RatedChartHandler)} however the rates are timed, and handled, in
+     * parallel. The action must therefore be thread safe.
+     *
+     * @param min The minimum rate.
+     * @param max The maximum rate.
+     * @param msdFilter The MSD Filter, first argument is the 1.0 MSD, and the
+     * second one is the k-rate MSD.
+     * @param action The action to apply if the filter is true.
+     */
+    public void forEachRateParallel(final String min,
+                                    final String max,
+                                    final BiPredicate<MSD, MSD> msdFilter,
+                                    final RatedChartHandler action) {
+        // Load the shared chart once, rather than in every thread
+        info.getChart();
+        rates(min, max, msdFilter).parallel().forEach(x -> action.accept(
+                rated(x.rate()), x.rate(), x.msd()
+        ));
+    }
+
+    /**
+     * @param min The minimum rate.
+     * @param max The maximum rate.
+     * @param msdFilter The MSD Filter.
+     * @return All rates in range which adhere to the filter.
+     */
+    private Stream<RatedMSD> rates(final String min,
+                                   final String max,
+                                   final BiPredicate<MSD, MSD> msdFilter) {
+        final MSD normal = getMSDForRate(NORMAL_RATE)
+                .orElseThrow(RuntimeException::new);
+        final List<RatedMSD> xs = new ArrayList<>();
 
         forEachRateInRange(min, max, "0.05", rate -> {
-            getMSDForRate(rate.toPlainString()).ifPresent(ratedMSD -> {
+            final int h = CacheStepsResult.toRateHundredths(rate);
+            getMSDForRate(h).ifPresent(ratedMSD -> {
                 if (msdFilter.test(normal, ratedMSD)) {
-                    this.info.timeNotesWith(baseTiming.rated(rate));
-                    action.accept(this, rate, ratedMSD);
+                    xs.add(new RatedMSD(rate, ratedMSD));
                 }
             });
         });
+
+        return xs.stream();
+    }
+
+    /**
+     * @param min The minimum rate.
+     * @param max The maximum rate.
+     * @param calc The calculator to calculate the MSD with.
+     * @param msdFilter The MSD Filter.
+     * @return All rates in range which adhere to the filter.
+     */
+    private Stream<RatedMSD> rates(final String min,
+                                   final String max,
+                                   final MSDCalculator calc,
+                                   final BiPredicate<MSD, MSD> msdFilter) {
+        final List<BigDecimal> xs = new ArrayList<>();
+        forEachRateInRange(min, max, "0.05", xs::add);
+
+        // The 1.0 MSD is swept along with the rest, it's always first
+        final float[] rates = new float[xs.size() + 1];
+        rates[0] = MinaCalc.DEFAULT_RATE;
+        for (int i = 0; i < xs.size(); ++i) {
+            rates[i + 1] = xs.get(i).floatValue();
+        }
+
+        final TimedNoteChart normalChart
+                = info.timedWith(getEtternaFile().getTimingInfo());
+        final float[] msds = calc.getMSDForRates(
+                normalChart, rates, MinaCalc.DEFAULT_SCORE_GOAL
+        );
+
+        final MSD normal = MSD.initFromFloats(msds, 0);
+        final List<RatedMSD> rated = new ArrayList<>();
+        for (int i = 0; i < xs.size(); ++i) {
+            final MSD ratedMSD = MSD.initFromFloats(
+                    msds, (i + 1) * SkillSet.NUM_SKILLSETS
+            );
+            if (msdFilter.test(normal, ratedMSD)) {
+                rated.add(new RatedMSD(xs.get(i), ratedMSD));
+            }
+        }
+
+        return rated.stream();
+    }
+
+    /**
+     * @param rate The rate to time with.
+     * @return New instance sharing this cache and note info, with the chart
+     * timed for the provided rate.
+     */
+    private CachedNoteInfo rated(final BigDecimal rate) {
+        final EtternaTiming baseTiming = getEtternaFile().getTimingInfo();
+        return new CachedNoteInfo(
+                cache, info, info.timedWith(baseTiming.rated(rate))
+        );
     }
 
     /**
@@ -232,4 +441,13 @@ public class CachedNoteInfo {
     public static interface RatedChartHandler {
         void accept(CachedNoteInfo info, BigDecimal rate, MSD msd);
     }
+
+    /**
+     * A rate and the MSD for that rate.
+     *
+     * @param rate The rate.
+     * @param msd The MSD of the rate.
+     */
+    private record RatedMSD(BigDecimal rate, MSD msd) {
+    }
 }
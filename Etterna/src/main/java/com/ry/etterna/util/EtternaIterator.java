@@ -1,6 +1,7 @@
 package com.ry.etterna.util;
 
 import com.ry.etterna.EtternaFile;
+import com.ry.useful.property.PropertyReader.LoadMode;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
@@ -48,6 +49,13 @@ public class EtternaIterator {
     @Setter(AccessLevel.PUBLIC)
     private Predicate<EtternaFile> filter;
 
+    /**
+     * How each file is loaded, note data is only ever parsed if something
+     * asks for it so filters over the header stay cheap either way.
+     */
+    @Setter(AccessLevel.PUBLIC)
+    private LoadMode loadMode = LoadMode.DECODED;
+
     /**
      * @param root Root directory containing potentially Zero Stepmania files.
      */
@@ -81,7 +89,7 @@ public class EtternaIterator {
      */
     public Optional<EtternaFile> mapFile(final File file) {
         try {
-            final EtternaFile f = new EtternaFile(file);
+            final EtternaFile f = new EtternaFile(file, loadMode);
             if (getFilter().test(f)) {
                 return Optional.of(f);
             } else {
@@ -0,0 +1,102 @@
+package com.ry.etterna;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * The warmup and timing loop shared by the benchmarks, each benchmark only
+ * supplies the work it times.
+ *
+ * @author -Ry
+ */
+final class BenchmarkHarness {
+
+    /**
+     * The songs directory used when none is provided.
+     */
+    private static final File SONGS_DIR
+            = new File("C:\\Games\\Etterna\\Songs");
+
+    /**
+     * Number of untimed rounds run before measuring.
+     */
+    static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Number of timed rounds.
+     */
+    static final int MEASURED_ROUNDS = 5;
+
+    private BenchmarkHarness() {
+    }
+
+    /**
+     * @param args The benchmark arguments.
+     * @return The first argument as the songs directory, else the default.
+     */
+    static File songsDir(final String[] args) {
+        return args.length > 0 ? new File(args[0]) : SONGS_DIR;
+    }
+
+    /**
+     * Runs every work for the warmup rounds and then times them over the
+     * measured rounds, the works are interleaved in every round.
+     *
+     * @param works The works to time.
+     * @return The total time of each work over all measured rounds in
+     * nanoseconds, in the order of the works.
+     * @throws IOException If any work fails to read its input.
+     */
+    static long[] measure(final Work... works) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            for (final Work work : works) {
+                blackHole(work.run());
+            }
+        }
+
+        final long[] nanos = new long[works.length];
+        for (int i = 0; i < MEASURED_ROUNDS; ++i) {
+            for (int w = 0; w < works.length; ++w) {
+                final long start = System.nanoTime();
+                final long sink = works[w].run();
+                nanos[w] += System.nanoTime() - start;
+                blackHole(sink);
+            }
+        }
+        return nanos;
+    }
+
+    /**
+     * @param nanos The total time over all measured rounds.
+     * @return The average time of a single round in milliseconds.
+     */
+    static long millisPerRound(final long nanos) {
+        return nanos / MEASURED_ROUNDS / 1_000_000;
+    }
+
+    /**
+     * Consumes a result so the work producing it can't be eliminated.
+     *
+     * @param sink The result.
+     */
+    private static void blackHole(final long sink) {
+        if (sink == 42) {
+            System.out.print("");
+        }
+    }
+
+    /**
+     * A single round of timed work.
+     */
+    @FunctionalInterface
+    interface Work {
+
+        /**
+         * @return A value derived from everything computed so that none of
+         * it can be eliminated.
+         * @throws IOException If reading the input fails.
+         */
+        long run() throws IOException;
+    }
+}
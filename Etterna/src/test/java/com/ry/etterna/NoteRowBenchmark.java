@@ -0,0 +1,118 @@
+package com.ry.etterna;
+
+import com.ry.etterna.note.Note;
+import com.ry.etterna.note.NoteRow;
+import com.ry.etterna.note.NoteType;
+import com.ry.useful.property.TokenizedContent;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Compares the rows per second of the regex based row decoding against the
+ * lookup table decoding, over every note row in the songs directory.
+ *
+ * @author -Ry
+ */
+public class NoteRowBenchmark {
+
+    public static void main(final String[] args) throws IOException {
+        final File dir = BenchmarkHarness.songsDir(args);
+
+        final List<String> rows = new ArrayList<>();
+        FileUtils.streamFiles(dir, true, "sm").forEach(x -> {
+            try {
+                final TokenizedContent content = new TokenizedContent(
+                        FileUtils.readFileToString(x, StandardCharsets.UTF_8)
+                );
+                for (final String notes : content.getAll("NOTES", false)) {
+                    for (final String line : notes.split("\\s+")) {
+                        if (!line.isEmpty() && NoteType.isOnlyReserved(line)) {
+                            rows.add(line);
+                        }
+                    }
+                }
+            } catch (final IOException e) {
+                System.err.println("[IO-ERROR] " + x.getAbsolutePath());
+            }
+        });
+        System.out.printf("Loaded %s rows%n", rows.size());
+
+        // Both decoders must agree before timing them means anything
+        int mismatches = 0;
+        for (final String row : rows) {
+            final NoteRow a = regexLoad(row);
+            final NoteRow b = NoteRow.loadFromStr(row, 0, row.length());
+            for (int i = 0; i < a.size(); ++i) {
+                if (!a.getNotes()[i].equals(b.getNotes()[i])) {
+                    ++mismatches;
+                }
+            }
+        }
+        System.out.printf("Mismatched notes: %s%n", mismatches);
+
+        final long[] nanos = BenchmarkHarness.measure(
+                () -> runRegex(rows),
+                () -> runTable(rows)
+        );
+
+        System.out.printf(
+                "Regex: %s rows/s; Table: %s rows/s%n",
+                rowsPerSecond(rows.size(), nanos[0]),
+                rowsPerSecond(rows.size(), nanos[1])
+        );
+    }
+
+    private static long rowsPerSecond(final int rows, final long nanos) {
+        return (long) (rows * (double) BenchmarkHarness.MEASURED_ROUNDS
+                / (nanos / 1e9));
+    }
+
+    /**
+     * The row decoding prior to the lookup table.
+     */
+    private static NoteRow regexLoad(final String rawRow) {
+        if (rawRow.replaceAll(NoteType.RESERVED_REGEX, "").length() != 0) {
+            throw new IllegalStateException("Not entirely known char "
+                    + "sequence: " + rawRow);
+        }
+
+        final Note[] notes = new Note[rawRow.length()];
+        int index = 0;
+        for (final char c : rawRow.toCharArray()) {
+            NoteType type = null;
+            for (final NoteType t : NoteType.values()) {
+                if (t.isThis(String.valueOf(c))) {
+                    type = t;
+                    break;
+                }
+            }
+            notes[index] = new Note(type);
+            notes[index].setColumn(index);
+            ++index;
+        }
+
+        return new NoteRow(notes);
+    }
+
+    private static long runRegex(final List<String> rows) {
+        int sink = 0;
+        for (final String row : rows) {
+            sink += regexLoad(row).size();
+        }
+        return sink;
+    }
+
+    private static long runTable(final List<String> rows) {
+        int sink = 0;
+        for (final String row : rows) {
+            sink += NoteRow.loadFromStr(row, 0, row.length()).size();
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,185 @@
+package com.ry.etterna;
+
+import com.ry.etterna.note.EtternaNoteInfo;
+import com.ry.etterna.note.NoteChart;
+import com.ry.etterna.reader.EtternaTiming;
+import com.ry.vsrg.sequence.TimingSequence;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Verifies the fixed point timing sequence against the BigDecimal timing
+ * sequence it replaced, for every chart in the songs directory at every
+ * rate, then compares the speed of both.
+ *
+ * @author -Ry
+ */
+public class TimingSequenceBenchmark {
+
+    public static void main(final String[] args) throws IOException {
+        final File dir = BenchmarkHarness.songsDir(args);
+
+        // Every (signature, bpm) advanced by every chart at every rate
+        final List<int[]> signatures = new ArrayList<>();
+        final List<double[]> bpms = new ArrayList<>();
+
+        long rows = 0;
+        long mismatches = 0;
+        final String[] extensions = {"sm"};
+        for (final File f : FileUtils.listFiles(dir, extensions, true)) {
+            final EtternaFile file;
+            try {
+                file = new EtternaFile(f);
+            } catch (final Throwable e) {
+                System.err.println("[SKIPPED] " + f.getAbsolutePath());
+                continue;
+            }
+
+            for (final EtternaNoteInfo info : file.getNoteInfo()) {
+                for (int rate = 70; rate <= 200; rate += 5) {
+                    final EtternaTiming timing = file.getTimingInfo()
+                            .rated(BigDecimal.valueOf(rate, 2));
+                    final NoteChart chart;
+                    try {
+                        chart = info.getChart();
+                    } catch (final IllegalStateException e) {
+                        break;
+                    }
+
+                    final int[] sig = new int[chart.getNumRows()];
+                    final double[] bpm = new double[chart.getNumRows()];
+                    mismatches += verify(chart, timing, sig, bpm);
+                    rows += sig.length;
+                    signatures.add(sig);
+                    bpms.add(bpm);
+                }
+            }
+        }
+        System.out.printf("Rows: %s; Mismatched rows: %s%n", rows, mismatches);
+
+        final long[] nanos = BenchmarkHarness.measure(
+                () -> runBigDecimal(signatures, bpms),
+                () -> runFixed(signatures, bpms)
+        );
+
+        System.out.printf(
+                "BigDecimal: %sms/round; Fixed: %sms/round%n",
+                BenchmarkHarness.millisPerRound(nanos[0]),
+                BenchmarkHarness.millisPerRound(nanos[1])
+        );
+    }
+
+    /**
+     * Times the chart with both sequences, each picking its own BPM.
+     */
+    private static long verify(final NoteChart chart,
+                               final EtternaTiming timing,
+                               final int[] sig,
+                               final double[] bpm) {
+        final BigDecimalSequence expected = new BigDecimalSequence();
+        final TimingSequence actual = new TimingSequence();
+
+        long mismatches = 0;
+        for (int m = 0; m < chart.getNumMeasures(); ++m) {
+            final int size = chart.getMeasureSize(m);
+            final int start = chart.getMeasureStart(m);
+            for (int row = start; row < start + size; ++row) {
+                final BigDecimal a = expected.getCurTimeScaled();
+                final BigDecimal b = expected.getCurBeatScaled();
+                if (a.compareTo(actual.getCurTimeScaled()) != 0
+                        || b.compareTo(actual.getCurBeatScaled()) != 0) {
+                    ++mismatches;
+                }
+
+                final BigDecimal v = timing.getLatest(b).getValue();
+                sig[row] = size;
+                bpm[row] = v.doubleValue();
+                expected.advanceByNote(size, v);
+                actual.advanceByNote(
+                        size,
+                        timing.getLatest(actual.getCurBeatScaled()).getValue()
+                );
+            }
+        }
+        return mismatches;
+    }
+
+    private static long runBigDecimal(final List<int[]> signatures,
+                                      final List<double[]> bpms) {
+        long sink = 0;
+        for (int i = 0; i < signatures.size(); ++i) {
+            final BigDecimalSequence seq = new BigDecimalSequence();
+            final int[] sig = signatures.get(i);
+            final double[] bpm = bpms.get(i);
+            for (int row = 0; row < sig.length; ++row) {
+                sink += seq.getCurTimeScaled().unscaledValue().longValue();
+                sink += seq.getCurBeatScaled().unscaledValue().longValue();
+                seq.advanceByNote(sig[row], bpm[row]);
+            }
+        }
+        return sink;
+    }
+
+    private static long runFixed(final List<int[]> signatures,
+                                 final List<double[]> bpms) {
+        long sink = 0;
+        for (int i = 0; i < signatures.size(); ++i) {
+            final TimingSequence seq = new TimingSequence();
+            final int[] sig = signatures.get(i);
+            final double[] bpm = bpms.get(i);
+            for (int row = 0; row < sig.length; ++row) {
+                sink += seq.getCurTimeMillis();
+                sink += seq.getCurBeatHundredths();
+                seq.advanceByNote(sig[row], bpm[row]);
+            }
+        }
+        return sink;
+    }
+
+    /**
+     * The BigDecimal timing sequence prior to the fixed point one.
+     */
+    private static final class BigDecimalSequence {
+        private BigDecimal curTime
+                = new BigDecimal("0.0", MathContext.DECIMAL64);
+        private BigDecimal curBeat
+                = new BigDecimal("0.0", MathContext.DECIMAL64);
+
+        private void advanceByNote(final int timeSignature,
+                                   final BigDecimal bpm) {
+            advanceByNote(timeSignature, bpm.doubleValue());
+        }
+
+        private void advanceByNote(final int timeSignature,
+                                   final double bpm) {
+            final MathContext c = new MathContext(12, RoundingMode.HALF_EVEN);
+            curTime = curTime.add(
+                    TimingSequence.calcTimePerNote(timeSignature, bpm),
+                    c
+            );
+            curBeat = curBeat.add(
+                    BigDecimal.valueOf(4.0).divide(
+                            BigDecimal.valueOf(timeSignature),
+                            MathContext.DECIMAL64
+                    ),
+                    MathContext.DECIMAL64
+            );
+        }
+
+        private BigDecimal getCurBeatScaled() {
+            return curBeat.setScale(2, RoundingMode.UP);
+        }
+
+        private BigDecimal getCurTimeScaled() {
+            return curTime.setScale(3, RoundingMode.FLOOR);
+        }
+    }
+}
@@ -202,10 +202,9 @@ public class ConvertableFile {
                 // The offsets are all offbeat by a single k/m this offset
                 // has to be applied to the audio file as doing time - offset
                 // will result in negative values.
-                final var timingData = getNotes().getInfo().getCurTimingInfo();
-                final var bpm = timingData.getBpms().get(0);
-                final var measure
-                        = getNotes().getInfo().getMeasures()[0].size();
+                final var chart = getNotes().getChart();
+                final var bpm = chart.getTiming().getBpms().get(0);
+                final var measure = chart.getChart().getMeasureSize(0);
                 final var timePerNote = TimingSequence.calcTimePerNote(
                         measure,
                         bpm.getValue().doubleValue()
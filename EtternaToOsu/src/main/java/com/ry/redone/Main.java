@@ -2,6 +2,7 @@ package com.ry.redone;
 
 import com.ry.etterna.EtternaFile;
 import com.ry.etterna.db.CacheDB;
+import com.ry.etterna.db.ChartKeyStore;
 import com.ry.etterna.msd.MSD;
 import com.ry.etterna.msd.SkillSet;
 import com.ry.etterna.util.CachedNoteInfo;
@@ -36,6 +37,12 @@ public class Main {
     public static final BigDecimal MIN_MSD = new BigDecimal("22.5");
     public static final BigDecimal MAX_MSD = new BigDecimal("35.5");
 
+    // The above in hundredths, so the filter never creates a BigDecimal
+    private static final int DEVIATION_LIMIT_H = MSD.toHundredths(DEVIATION_LIMIT);
+    private static final int MIN_DOWN_RATE_MSD_H = MSD.toHundredths(MIN_DOWN_RATE_MSD);
+    private static final int MIN_MSD_H = MSD.toHundredths(MIN_MSD);
+    private static final int MAX_MSD_H = MSD.toHundredths(MAX_MSD);
+
     public static final BiPredicate<MSD, MSD> FILTER = (base, rated) -> {
 
         // 1.0 is not allowed
@@ -43,33 +50,36 @@ public class Main {
             return false;
         }
 
-        final BigDecimal b = base.getSkill(SkillSet.OVERALL);
-        final BigDecimal r = rated.getSkill(SkillSet.OVERALL);
+        final int b = base.getHundredths(SkillSet.OVERALL);
+        final int r = rated.getHundredths(SkillSet.OVERALL);
 
         // Down rated
         final boolean filter;
-        if (b.compareTo(r) > 0) {
-            filter = b.compareTo(MIN_DOWN_RATE_MSD) >= 0;
+        if (b > r) {
+            filter = b >= MIN_DOWN_RATE_MSD_H;
 
             // Uprated
         } else {
-            filter = r.subtract(b, C).compareTo(DEVIATION_LIMIT) <= 0;
+            filter = r - b <= DEVIATION_LIMIT_H;
         }
 
         // If filter true and in range
         return filter
-                && r.compareTo(MIN_MSD) >= 0
-                && r.compareTo(MAX_MSD) <= 0;
+                && r >= MIN_MSD_H
+                && r <= MAX_MSD_H;
     };
 
     public static final File CACHE_FILE = new File("C:\\Games\\Etterna\\Cache\\cache.db");
+    public static final File KEY_STORE_FILE = new File("C:\\Games\\Etterna\\Cache\\chartkeys.db");
     public static final File SONGS_DIR = new File("C:\\Games\\Etterna\\Songs");
     public static final File OUTPUT_DIR = new File("G:\\Games\\- - - Converts (29-04-2022)");
 
 
     public static void main(final String[] args) throws SQLException, IOException {
         final Instant start = Instant.now();
-        final CacheDB db = new CacheDB(CACHE_FILE);
+        final CacheDB db = new CacheDB(CACHE_FILE, true);
+        final ChartKeyStore keyStore = new ChartKeyStore(KEY_STORE_FILE);
+        db.setKeyStore(keyStore);
 
         final File[] packs = SONGS_DIR.listFiles();
         if (packs != null) {
@@ -99,6 +109,7 @@ public class Main {
         }
 
         db.close();
+        keyStore.close();
         FFMPEG.INSTANCE.getExecutor().shutdown();
     }
 
@@ -32,6 +32,14 @@ static const std::array<std::pair<unsigned, std::string_view>, 16>
 					 { 14U, "-xxx" },
 					 { 15U, "xxxx" } } };
 
+// Defined here as ulbu is incomplete in the header
+Calc::Calc()
+{
+	resize_interval_dependent_vectors(default_interval_count);
+}
+
+Calc::~Calc() = default;
+
 static auto
 TotalMaxPoints(const Calc& calc) -> float
 {
@@ -471,13 +479,15 @@ Calc::InitializeHands(const std::vector<NoteInfo>& NoteInfo,
 
 	// ulbu calculates everything needed for the block below
 	// (mostly patternmods)
-	thread_local TheGreatBazoinkazoinkInTheSky ulbu_that_which_consumes_all(
-	  *this);
+	if (ulbu_in_charge == nullptr) {
+		ulbu_in_charge =
+		  std::make_unique<TheGreatBazoinkazoinkInTheSky>(*this);
+	}
 
 	// reset ulbu patternmod structs
 	// run agnostic patternmod/sequence loop
 	// run dependent patternmod/sequence loop
-	ulbu_that_which_consumes_all();
+	(*ulbu_in_charge)();
 
 	// loop over hands to set adjusted difficulties using the patternmods
 	for (const auto& hand : both_hands) {
@@ -3,6 +3,7 @@
 #include <string>
 #include <vector>
 #include <array>
+#include <memory>
 
 // For internal, must be preprocessor defined
 #if defined(MINADLL_COMPILE) && defined(_WIN32)
@@ -18,6 +19,7 @@
 using MinaSD = std::vector<std::vector<float>>;
 
 class Calc;
+struct TheGreatBazoinkazoinkInTheSky;
 
 /** This defines the base size for each interval-based vector in MinaCalc.
 * Each interval is one half second. If any situation arises in which the
@@ -98,6 +100,12 @@ class Calc
 	bool loadparams = false;
 
   private:
+	/** The pattern mod sequencer of this calc. Owned by the calc rather than
+	* being thread_local so that each calc is independent of the threads that
+	* use it, and of any other calc used on the same thread.
+	*/
+	std::unique_ptr<TheGreatBazoinkazoinkInTheSky> ulbu_in_charge;
+
 	/** Splits up the chart by each hand and processes them individually to
 	* produce hand specific base difficulty values, which are then passed to
 	* the chisel functions. Hardcode a limit for nps (100) and if we hit it just
@@ -133,7 +141,8 @@ class Calc
 	/** Each Calc instance created sets up the interval related vectors.
 	* Their default size is default_interval_count.
 	*/
-	Calc() { resize_interval_dependent_vectors(default_interval_count); }
+	Calc();
+	~Calc();
 	
 	/** For each interval, there are up to max_rows_for_single_interval entries
 	* of RowInfo. This is precalculated by fast_walk_and_check_for_skip.
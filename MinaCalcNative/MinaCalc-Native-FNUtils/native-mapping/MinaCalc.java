@@ -3,6 +3,7 @@ package com.ry.etterna.msd;
 // Contains only the native method declarations
 //
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public class MinaCalc {
@@ -10,6 +11,13 @@ public class MinaCalc {
     private static native float[] getMSDForRateAndGoal(int[] notes,float[] times,float scoreGoal,float rate);
     private static native List<float[]> getMSDForAllRates(int[] notes,float[] times,List<float[]> fill);
     public static native void dispose();
+    private static native long createCalc();
+    private static native void disposeCalc(long calc);
+    public static native int getCalcVersion();
+    private static native float[] getMSDForRateAndGoalWith(long calc,int[] notes,float[] times,float scoreGoal,float rate);
+    private static native List<float[]> getMSDForAllRatesWith(long calc,int[] notes,float[] times,List<float[]> fill);
+    private static native float[] getMSDForRateAndGoalDirect(long calc,ByteBuffer notes,int count,float scoreGoal,float rate);
+    private static native void getMSDBatchWith(long calc,ByteBuffer notes,int[] offsets,float[] ratesAndGoals,float[] out);
 //     public static native boolean isNativelyLoaded(); // I found this to be unnecessary
 }
 
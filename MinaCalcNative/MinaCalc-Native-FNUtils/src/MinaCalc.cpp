@@ -33,9 +33,31 @@ static void initSequence() {
 void Java_com_ry_etterna_msd_MinaCalc_dispose(JNIEnv *env, jclass caller) {
     if (isInitialised()) {
         delete CALC_INSTANCE;
+        CALC_INSTANCE = nullptr;
     }
 }
 
+/**
+ * @return The address of a new Calc instance owned by the caller.
+ */
+jlong Java_com_ry_etterna_msd_MinaCalc_createCalc(JNIEnv *env, jclass caller) {
+    return reinterpret_cast<jlong>(new Calc());
+}
+
+/**
+ * Deletes a Calc instance created by createCalc.
+ */
+void Java_com_ry_etterna_msd_MinaCalc_disposeCalc(JNIEnv *env, jclass caller, jlong calc) {
+    delete reinterpret_cast<Calc *>(calc);
+}
+
+/**
+ * @return The version of the calc, MSD computed by different versions can differ.
+ */
+jint Java_com_ry_etterna_msd_MinaCalc_getCalcVersion(JNIEnv *env, jclass caller) {
+    return GetCalcVersion();
+}
+
 //
 // Note that these methods can throw assertion errors on malformed input.
 // If an assertion fail happens from a native call the entire JVM dies
@@ -44,19 +66,18 @@ void Java_com_ry_etterna_msd_MinaCalc_dispose(JNIEnv *env, jclass caller) {
 //
 
 /**
- * @return MSD for the default 1.0 rate and default 0.93 score goal.
+ * @return MSD for the provided notes, and rate using the provided, target goal.
  */
-jfloatArray Java_com_ry_etterna_msd_MinaCalc_getDefaultMSDFor(JNIEnv *env,
-                                                              jclass caller,
-                                                              jintArray notes,
-                                                              jfloatArray times) {
-    initSequence();
-
+static jfloatArray msdForRateAndGoal(JNIEnv *env,
+                                     Calc *calc,
+                                     const RawNotes &notes,
+                                     jfloat scoreGoal,
+                                     jfloat rate) {
     auto msd = MinaSDCalc(
-            RawNotes{env, notes, times}.asNoteInfo(),
-            DEFAULT_RATE,
-            DEFAULT_SCORE_GOAL,
-            CALC_INSTANCE
+            notes.asNoteInfo(),
+            rate,
+            scoreGoal,
+            calc
     );
     jfloatArray array = env->NewFloatArray(NUM_SKILL_SETS);
     env->SetFloatArrayRegion(array, 0, NUM_SKILL_SETS, msd.data());
@@ -65,6 +86,42 @@ jfloatArray Java_com_ry_etterna_msd_MinaCalc_getDefaultMSDFor(JNIEnv *env,
     return array;
 }
 
+/**
+ * @return The provided list object populated with the MSD info for each rate.
+ */
+static jobject msdForAllRates(JNIEnv *env,
+                              Calc *calc,
+                              jintArray notes,
+                              jfloatArray times,
+                              jobject list) {
+    auto msdForAllRates = MinaSDCalc(
+            RawNotes{env, notes, times}.asNoteInfo(),
+            calc
+    );
+
+    // Append results to the provided list
+    JList<jfloatArray> nativeList(env, list);
+    for (auto msdForRate: msdForAllRates) {
+        jfloatArray array = env->NewFloatArray(NUM_SKILL_SETS);
+        env->SetFloatArrayRegion(array, 0, NUM_SKILL_SETS, msdForRate.data());
+        std::destroy(msdForRate.begin(), msdForRate.end());
+        nativeList.add(array);
+    }
+
+    return list;
+}
+
+/**
+ * @return MSD for the default 1.0 rate and default 0.93 score goal.
+ */
+jfloatArray Java_com_ry_etterna_msd_MinaCalc_getDefaultMSDFor(JNIEnv *env,
+                                                              jclass caller,
+                                                              jintArray notes,
+                                                              jfloatArray times) {
+    initSequence();
+    return msdForRateAndGoal(env, CALC_INSTANCE, RawNotes{env, notes, times}, DEFAULT_SCORE_GOAL, DEFAULT_RATE);
+}
+
 /**
  * @return MSD for the provided notes, and rate using the provided, target goal.
  */
@@ -75,18 +132,7 @@ jfloatArray Java_com_ry_etterna_msd_MinaCalc_getMSDForRateAndGoal(JNIEnv *env,
                                                                   jfloat scoreGoal,
                                                                   jfloat rate) {
     initSequence();
-
-    auto msd = MinaSDCalc(
-            RawNotes{env, notes, times}.asNoteInfo(),
-            rate,
-            scoreGoal,
-            CALC_INSTANCE
-    );
-    jfloatArray array = env->NewFloatArray(NUM_SKILL_SETS);
-    env->SetFloatArrayRegion(array, 0, NUM_SKILL_SETS, msd.data());
-    std::destroy(msd.begin(), msd.end());
-
-    return array;
+    return msdForRateAndGoal(env, CALC_INSTANCE, RawNotes{env, notes, times}, scoreGoal, rate);
 }
 
 /**
@@ -98,20 +144,106 @@ jobject Java_com_ry_etterna_msd_MinaCalc_getMSDForAllRates(JNIEnv *env,
                                                            jfloatArray times,
                                                            jobject list) {
     initSequence();
+    return msdForAllRates(env, CALC_INSTANCE, notes, times, list);
+}
 
-    auto msdForAllRates = MinaSDCalc(
-            RawNotes{env, notes, times}.asNoteInfo(),
-            CALC_INSTANCE
-    );
+/**
+ * @return MSD for the provided notes, and rate using the provided, target goal and Calc instance.
+ */
+jfloatArray Java_com_ry_etterna_msd_MinaCalc_getMSDForRateAndGoalWith(JNIEnv *env,
+                                                                      jclass caller,
+                                                                      jlong calc,
+                                                                      jintArray notes,
+                                                                      jfloatArray times,
+                                                                      jfloat scoreGoal,
+                                                                      jfloat rate) {
+    return msdForRateAndGoal(env, reinterpret_cast<Calc *>(calc), RawNotes{env, notes, times}, scoreGoal, rate);
+}
 
-    // Append results to the provided list
-    JList<jfloatArray> nativeList(env, list);
-    for (auto msdForRate: msdForAllRates) {
-        jfloatArray array = env->NewFloatArray(NUM_SKILL_SETS);
-        env->SetFloatArrayRegion(array, 0, NUM_SKILL_SETS, msdForRate.data());
-        std::destroy(msdForRate.begin(), msdForRate.end());
-        nativeList.add(array);
+/**
+ * @return MSD for the packed NoteInfo structs in the provided direct buffer, and rate using the provided, target goal
+ * and Calc instance. If the buffer is invalid an IllegalArgumentException is thrown.
+ */
+jfloatArray Java_com_ry_etterna_msd_MinaCalc_getMSDForRateAndGoalDirect(JNIEnv *env,
+                                                                        jclass caller,
+                                                                        jlong calc,
+                                                                        jobject notes,
+                                                                        jint count,
+                                                                        jfloat scoreGoal,
+                                                                        jfloat rate) {
+    RawNotes rawNotes{env, notes, count};
+    if (env->ExceptionCheck()) {
+        return nullptr;
     }
+    return msdForRateAndGoal(env, reinterpret_cast<Calc *>(calc), rawNotes, scoreGoal, rate);
+}
 
-    return list;
+/**
+ * @return The provided list object populated with the MSD info for each rate, using the provided Calc instance.
+ */
+jobject Java_com_ry_etterna_msd_MinaCalc_getMSDForAllRatesWith(JNIEnv *env,
+                                                               jclass caller,
+                                                               jlong calc,
+                                                               jintArray notes,
+                                                               jfloatArray times,
+                                                               jobject list) {
+    return msdForAllRates(env, reinterpret_cast<Calc *>(calc), notes, times, list);
+}
+
+/**
+ * Calculates the MSD of every chart in the packed buffer for every rate and goal pair. Chart i is the notes
+ * [offsets[i], offsets[i + 1]) and its MSD for pair j is written to out starting at (i * pairs + j) * NUM_SKILL_SETS.
+ * If any argument is invalid an IllegalArgumentException is thrown and nothing is calculated.
+ */
+void Java_com_ry_etterna_msd_MinaCalc_getMSDBatchWith(JNIEnv *env,
+                                                      jclass caller,
+                                                      jlong calc,
+                                                      jobject notes,
+                                                      jintArray offsets,
+                                                      jfloatArray ratesAndGoals,
+                                                      jfloatArray out) {
+    const jsize numCharts = env->GetArrayLength(offsets) - 1;
+    const jsize numPairs = env->GetArrayLength(ratesAndGoals) / 2;
+    if (numCharts < 0 || env->GetArrayLength(ratesAndGoals) % 2 != 0) {
+        throwIllegalArgument(env, "Offsets must be non-empty and rates must be paired with goals");
+        return;
+    }
+
+    if (env->GetArrayLength(out) < static_cast<jlong>(numCharts) * numPairs * NUM_SKILL_SETS) {
+        throwIllegalArgument(env, "Output is smaller than charts * pairs * skill sets");
+        return;
+    }
+
+    std::vector<jint> chartOffsets(numCharts + 1);
+    env->GetIntArrayRegion(offsets, 0, numCharts + 1, chartOffsets.data());
+    std::vector<jfloat> pairs(numPairs * 2);
+    env->GetFloatArrayRegion(ratesAndGoals, 0, numPairs * 2, pairs.data());
+
+    for (jsize i = 0; i < numCharts; ++i) {
+        if (chartOffsets[i] < 0 || chartOffsets[i] > chartOffsets[i + 1]) {
+            throwIllegalArgument(env, "Offsets must be ascending from zero");
+            return;
+        }
+    }
+
+    const NoteInfo *packed = directNoteInfo(env, notes, chartOffsets[numCharts]);
+    if (packed == nullptr) {
+        return;
+    }
+
+    // Both reused for every chart so the batch allocates once
+    std::vector<NoteInfo> noteInfo;
+    std::vector<jfloat> msds(numPairs * NUM_SKILL_SETS);
+    for (jsize i = 0; i < numCharts; ++i) {
+        noteInfo.assign(packed + chartOffsets[i], packed + chartOffsets[i + 1]);
+
+        // Every pass is redone per rate, the calc buckets notes into intervals of rate scaled time and derives
+        // everything else from those, so only the notes and the Calc instance are shared between rates
+        for (jsize j = 0; j < numPairs; ++j) {
+            auto msd = MinaSDCalc(noteInfo, pairs[j * 2], pairs[j * 2 + 1], reinterpret_cast<Calc *>(calc));
+            std::copy_n(msd.begin(), std::min<size_t>(msd.size(), NUM_SKILL_SETS), msds.begin() + j * NUM_SKILL_SETS);
+        }
+
+        env->SetFloatArrayRegion(out, i * numPairs * NUM_SKILL_SETS, numPairs * NUM_SKILL_SETS, msds.data());
+    }
 }
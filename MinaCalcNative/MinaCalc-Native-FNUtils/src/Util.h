@@ -5,28 +5,88 @@
 #ifndef MINACALC_NATIVE_FNUTILS_UTIL_H
 #define MINACALC_NATIVE_FNUTILS_UTIL_H
 
+#include <algorithm>
 #include <vector>
 #include <iostream>
 #include "jni.h"
 #include "../lib/0.71.0/MinaCalc/MinaCalc.h"
 
+/**
+ * The size of a single packed NoteInfo, that is, a 32-bit note mask followed by a 32-bit float time.
+ */
+static const jlong NOTE_INFO_BYTES = sizeof(NoteInfo);
+
+static_assert(sizeof(NoteInfo) == sizeof(jint) + sizeof(jfloat), "NoteInfo must be packed");
+
+/**
+ * Throws an IllegalArgumentException, the caller must return to Java before making any other JNI call.
+ */
+static void throwIllegalArgument(JNIEnv *env, const char *msg) {
+    env->ThrowNew(env->FindClass("java/lang/IllegalArgumentException"), msg);
+}
+
+/**
+ * @return The packed NoteInfo structs of a direct buffer holding at least 'count' of them. If the buffer isn't direct
+ * or is too small an IllegalArgumentException is pending and nullptr is returned.
+ */
+static const NoteInfo *directNoteInfo(JNIEnv *env, jobject buffer, jlong count) {
+    auto *packed = static_cast<const NoteInfo *>(env->GetDirectBufferAddress(buffer));
+    if (packed == nullptr) {
+        throwIllegalArgument(env, "Notes must be a direct buffer");
+        return nullptr;
+    }
+
+    if (count < 0 || env->GetDirectBufferCapacity(buffer) < count * NOTE_INFO_BYTES) {
+        throwIllegalArgument(env, "Notes buffer is smaller than the note count");
+        return nullptr;
+    }
+
+    return packed;
+}
+
+/**
+ * Copies the notes and times straight into the NoteInfo vector the calc consumes, this is the only copy made. The
+ * arrays are pinned only for the duration of the copy and are always released, nothing is written back.
+ */
 struct RawNotes {
-    long *notes;
-    float *times;
-    int size;
+    std::vector<NoteInfo> noteInfo;
 
     RawNotes(JNIEnv *env, jintArray notes, jfloatArray times) {
-        this->notes = env->GetIntArrayElements(notes, nullptr);
-        this->times = env->GetFloatArrayElements(times, nullptr);
-        this->size = env->GetArrayLength(notes);
+        const jsize size = std::min(env->GetArrayLength(notes), env->GetArrayLength(times));
+        noteInfo.resize(size);
+
+        // No JNI calls are allowed until both are released
+        auto *pNotes = static_cast<jint *>(env->GetPrimitiveArrayCritical(notes, nullptr));
+        auto *pTimes = static_cast<jfloat *>(env->GetPrimitiveArrayCritical(times, nullptr));
+        if (pNotes != nullptr && pTimes != nullptr) {
+            for (jsize i = 0; i < size; ++i) {
+                noteInfo[i] = {static_cast<unsigned int>(pNotes[i]), pTimes[i]};
+            }
+        } else {
+            noteInfo.clear();
+        }
+
+        if (pTimes != nullptr) {
+            env->ReleasePrimitiveArrayCritical(times, pTimes, JNI_ABORT);
+        }
+        if (pNotes != nullptr) {
+            env->ReleasePrimitiveArrayCritical(notes, pNotes, JNI_ABORT);
+        }
     }
 
-    [[nodiscard]] std::vector<NoteInfo> asNoteInfo() const {
-        auto *pNotes = new NoteInfo[size];
-        for (int i = 0; i < size; ++i) {
-            pNotes[i] = {(unsigned int) this->notes[i], this->times[i]};
+    /**
+     * Copies the notes from a direct buffer of packed NoteInfo structs in native byte order. If the buffer isn't direct
+     * or is too small an IllegalArgumentException is pending and the notes are empty.
+     */
+    RawNotes(JNIEnv *env, jobject buffer, jint count) {
+        const NoteInfo *packed = directNoteInfo(env, buffer, count);
+        if (packed != nullptr) {
+            noteInfo.assign(packed, packed + count);
         }
-        return std::vector<NoteInfo>{pNotes, pNotes + size};
+    }
+
+    [[nodiscard]] const std::vector<NoteInfo> &asNoteInfo() const {
+        return noteInfo;
     }
 };
 
@@ -35,19 +95,26 @@ class JList {
 private:
     JNIEnv* env;
     jobject list;
-    jclass cls;
+    jmethodID addId;
 
 public:
 
     JList(JNIEnv* e, jobject list) {
         this->env = e;
         this->list = list;
-        this->cls = this->env->GetObjectClass(this->list);
+
+        jclass cls = this->env->GetObjectClass(this->list);
+        this->addId = env->GetMethodID(cls, "add", "(Ljava/lang/Object;)Z");
+        env->DeleteLocalRef(cls);
     }
 
+    /**
+     * Adds the element to the list, the local reference to the element is deleted.
+     */
     bool add(T t) {
-        jmethodID id = env->GetMethodID(cls, "add", "(Ljava/lang/Object;)Z");
-        return env->CallObjectMethod(list, id, t);
+        const jboolean added = env->CallBooleanMethod(list, addId, t);
+        env->DeleteLocalRef(t);
+        return added;
     }
 };
 
@@ -39,6 +39,62 @@ JNIEXPORT jobject JNICALL Java_com_ry_etterna_msd_MinaCalc_getMSDForAllRates
 JNIEXPORT void JNICALL Java_com_ry_etterna_msd_MinaCalc_dispose
   (JNIEnv *, jclass);
 
+/*
+ * Class:     com_ry_etterna_msd_MinaCalc
+ * Method:    createCalc
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_com_ry_etterna_msd_MinaCalc_createCalc
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_ry_etterna_msd_MinaCalc
+ * Method:    disposeCalc
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_ry_etterna_msd_MinaCalc_disposeCalc
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     com_ry_etterna_msd_MinaCalc
+ * Method:    getCalcVersion
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_ry_etterna_msd_MinaCalc_getCalcVersion
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     com_ry_etterna_msd_MinaCalc
+ * Method:    getMSDForRateAndGoalWith
+ * Signature: (J[I[FFF)[F
+ */
+JNIEXPORT jfloatArray JNICALL Java_com_ry_etterna_msd_MinaCalc_getMSDForRateAndGoalWith
+  (JNIEnv *, jclass, jlong, jintArray, jfloatArray, jfloat, jfloat);
+
+/*
+ * Class:     com_ry_etterna_msd_MinaCalc
+ * Method:    getMSDForAllRatesWith
+ * Signature: (J[I[FLjava/util/List;)Ljava/util/List;
+ */
+JNIEXPORT jobject JNICALL Java_com_ry_etterna_msd_MinaCalc_getMSDForAllRatesWith
+  (JNIEnv *, jclass, jlong, jintArray, jfloatArray, jobject);
+
+/*
+ * Class:     com_ry_etterna_msd_MinaCalc
+ * Method:    getMSDForRateAndGoalDirect
+ * Signature: (JLjava/nio/ByteBuffer;IFF)[F
+ */
+JNIEXPORT jfloatArray JNICALL Java_com_ry_etterna_msd_MinaCalc_getMSDForRateAndGoalDirect
+  (JNIEnv *, jclass, jlong, jobject, jint, jfloat, jfloat);
+
+/*
+ * Class:     com_ry_etterna_msd_MinaCalc
+ * Method:    getMSDBatchWith
+ * Signature: (JLjava/nio/ByteBuffer;[I[F[F)V
+ */
+JNIEXPORT void JNICALL Java_com_ry_etterna_msd_MinaCalc_getMSDBatchWith
+  (JNIEnv *, jclass, jlong, jobject, jintArray, jfloatArray, jfloatArray);
+
 #ifdef __cplusplus
 }
 
@@ -2,15 +2,16 @@ package com.ry.osu.builder;
 
 import com.ry.etterna.note.EtternaNoteInfo;
 import com.ry.etterna.note.Note;
+import com.ry.etterna.note.NoteChart;
 import com.ry.etterna.note.NoteMeasure;
 import com.ry.etterna.note.NoteRow;
+import com.ry.etterna.note.NoteType;
+import com.ry.etterna.note.TimedNoteChart;
 import com.ry.etterna.util.CachedNoteInfo;
 import com.ry.useful.Entity;
-import com.ry.vsrg.BPM;
 import lombok.NonNull;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.math.MathContext;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,7 +36,8 @@ public final class BuildUtils {
      */
     public static BuildableOsuFile.BuildableOsuFileBuilder fromEtternaCache(
             @NonNull final CachedNoteInfo cache) {
-        final TimingContainer container = getHitInfo(cache.getInfo());
+        final TimingContainer container
+                = getHitInfo(cache.getChart());
         return BuildableOsuFile.builder()
                 .setHitObjects(container.hitObjects())
                 .setTimingPoints(container.timingPoints());
@@ -73,6 +75,52 @@ public final class BuildUtils {
         return new TimingContainer(hit, timing);
     }
 
+    /**
+     * Loads a mania timing container from the provided timed chart.
+     *
+     * @param timed The chart to load.
+     * @return All hit objects, and relevant timing points.
+     */
+    public static TimingContainer getHitInfo(final TimedNoteChart timed) {
+        final List<TimingPoint> timing = new ArrayList<>();
+        final List<HitObject> hit = new ArrayList<>();
+        final NoteChart chart = timed.getChart();
+        final int numColumns = chart.getNumColumns();
+
+        BigDecimal bpm = null;
+        for (int m = 0; m < chart.getNumMeasures(); ++m) {
+            final int start = chart.getMeasureStart(m);
+            final int size = chart.getMeasureSize(m);
+            for (int row = start; row < start + size; ++row) {
+
+                // Load timing data
+                final BigDecimal v = timed.getBpm(row).getValue();
+                if (bpm == null || (bpm.compareTo(v) != 0)) {
+                    bpm = v;
+                    timing.add(bpmToTimingPoint(
+                            v, size, timed.getTimeMillis(row)
+                    ));
+                }
+
+                // Load Note Row
+                for (int col = 0; col < numColumns; ++col) {
+                    final NoteType type = chart.getType(row, col);
+                    if (type.isTap() || type.isHoldHead()) {
+                        final int end = chart.getHoldEndRow(row, col);
+                        hit.add(noteToHitObject(
+                                timed.getTimeMillis(row),
+                                end == -1 ? -1 : timed.getTimeMillis(end),
+                                col,
+                                numColumns
+                        ));
+                    }
+                }
+            }
+        }
+
+        return new TimingContainer(hit, timing);
+    }
+
     /**
      * Converts a mania row & measure into an osu! timing point.
      *
@@ -82,53 +130,62 @@ public final class BuildUtils {
      */
     private static TimingPoint bpmToTimingPoint(final NoteMeasure m,
                                                 final NoteRow r) {
-        final BPM bpm = r.getBpm();
+        return bpmToTimingPoint(
+                r.getBpm().getValue(), m.size(), toMillis(r.getStartTime())
+        );
+    }
+
+    /**
+     * Converts a BPM at the provided time into an osu! timing point.
+     *
+     * @param bpm The BPM value.
+     * @param meter The size of the measure.
+     * @param timeMillis The start time in Milliseconds.
+     * @return New timing point.
+     */
+    private static TimingPoint bpmToTimingPoint(final BigDecimal bpm,
+                                                final int meter,
+                                                final long timeMillis) {
         final TimingPoint tp = new TimingPoint();
 
-        tp.setBeatLength(bpm.getValue());
-        tp.setMeter(m.size());
+        tp.setBeatLength(bpm);
+        tp.setMeter(meter);
         tp.setUnInherited(true);
-        tp.setTime(r.getStartTime()
-                .multiply(MILLIS_FACTOR, MathContext.DECIMAL64)
-                .toBigInteger()
-                .toString());
+        tp.setTime(String.valueOf(timeMillis));
         tp.setVolume(HitObject.Volume.HALF.getLevel());
 
         return tp;
     }
 
     /**
-     * Loads the provided note as a osu!mania hit object.
+     * Loads a note of a columnar chart as a osu!mania hit object.
      *
-     * @param note The note to load.
+     * @param startMillis The start time of the note in Milliseconds.
+     * @param endMillis The end time of the hold in Milliseconds, or -1 if
+     * the note isn't a hold.
+     * @param column The column of the note.
      * @param numColumns The number of columns in a row.
      * @return New hit object instance.
      */
-    private static HitObject noteToHitObject(final Note note,
+    private static HitObject noteToHitObject(final long startMillis,
+                                             final long endMillis,
+                                             final int column,
                                              final int numColumns) {
         final HitObject ho = new HitObject();
         final int holdYPos = 192;
 
-        final BigInteger start = note.getStartTime()
-                .multiply(MILLIS_FACTOR, MathContext.DECIMAL64)
-                .toBigInteger();
-
         // Clamp end time
         final HitObject.Type type;
-        if (note.getEndTime() != null) {
-            ho.setEndTime(note.getEndTime()
-                    .multiply(MILLIS_FACTOR, MathContext.DECIMAL64)
-                    .toBigInteger()
-                    .toString()
-            );
+        if (endMillis != -1) {
+            ho.setEndTime(String.valueOf(endMillis));
             type = HitObject.Type.MANIA_HOLD;
         } else {
             type = HitObject.Type.HIT;
         }
 
         // Set internals
-        ho.setTime(start.toString());
-        ho.setManiaColumn(note.getColumn(), numColumns);
+        ho.setTime(String.valueOf(startMillis));
+        ho.setManiaColumn(column, numColumns);
         ho.setY(type == HitObject.Type.HIT ? 0 : holdYPos);
         ho.setType(type);
 
@@ -140,6 +197,33 @@ public final class BuildUtils {
         return ho;
     }
 
+    /**
+     * Loads the provided note as a osu!mania hit object.
+     *
+     * @param note The note to load.
+     * @param numColumns The number of columns in a row.
+     * @return New hit object instance.
+     */
+    private static HitObject noteToHitObject(final Note note,
+                                             final int numColumns) {
+        return noteToHitObject(
+                toMillis(note.getStartTime()),
+                note.getEndTime() == null ? -1 : toMillis(note.getEndTime()),
+                note.getColumn(),
+                numColumns
+        );
+    }
+
+    /**
+     * @param seconds The time in seconds.
+     * @return The time in whole Milliseconds, truncated.
+     */
+    private static long toMillis(final BigDecimal seconds) {
+        return seconds.multiply(MILLIS_FACTOR, MathContext.DECIMAL64)
+                .toBigInteger()
+                .longValueExact();
+    }
+
     /**
      * Lazy container for data.
      */
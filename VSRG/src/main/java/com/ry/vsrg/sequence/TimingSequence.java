@@ -1,7 +1,5 @@
 package com.ry.vsrg.sequence;
 
-import lombok.Getter;
-
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
@@ -11,7 +9,6 @@ import java.math.RoundingMode;
  *
  * @author -Ry
  */
-@Getter
 public class TimingSequence {
 
     // todo The timings for this don't work correctly
@@ -49,15 +46,71 @@ public class TimingSequence {
      */
     private static final boolean IS_DEBUG_MODE = false;
 
+    /**
+     * The number of significant digits the current time is kept to.
+     */
+    private static final int TIME_PRECISION = 12;
+
+    /**
+     * The number of significant digits the current beat is kept to, that is,
+     * the precision of {@link MathContext#DECIMAL64}.
+     */
+    private static final int BEAT_PRECISION = 16;
+
+    /**
+     * Scale of the Milliseconds time, 3 decimal places.
+     */
+    private static final int TIME_SCALE_DIGITS = 3;
+
+    /**
+     * Scale of the beat, 2 decimal places.
+     */
+    private static final int BEAT_SCALE_DIGITS = 2;
+
     /**
      * The current time of this sequence normalised against 60s.
      */
-    private BigDecimal curTime = new BigDecimal("0.0", MathContext.DECIMAL64);
+    private final FixedDecimal curTime = new FixedDecimal(0, 1);
 
     /**
      * The current beat of this timing sequence normalised against 4/4 measure.
      */
-    private BigDecimal curBeat = new BigDecimal("0.0", MathContext.DECIMAL64);
+    private final FixedDecimal curBeat = new FixedDecimal(0, 1);
+
+    //
+    // Rows nearly always share the signature and BPM of the previous row so
+    // the per note increments are only recomputed when either changes.
+    //
+
+    /**
+     * The signature the cached increments were computed for.
+     */
+    private int lastSignature = -1;
+
+    /**
+     * The BPM the cached time increment was computed for.
+     */
+    private double lastBpm = Double.NaN;
+
+    /**
+     * Unscaled value of the cached time per note.
+     */
+    private long timePerNoteUnscaled;
+
+    /**
+     * Scale of the cached time per note.
+     */
+    private int timePerNoteScale;
+
+    /**
+     * Unscaled value of the cached beat per note.
+     */
+    private long beatPerNoteUnscaled;
+
+    /**
+     * Scale of the cached beat per note.
+     */
+    private int beatPerNoteScale;
 
     /**
      * Throws an exception iff the provided signature is unknown.
@@ -95,19 +148,43 @@ public class TimingSequence {
             ));
 
         } else {
+            // NaN never equals itself so this also catches a new signature
+            if (timeSignature != lastSignature || bpm != lastBpm) {
+                final BigDecimal time = calcTimePerNote(timeSignature, bpm);
+                timePerNoteUnscaled = time.unscaledValue().longValueExact();
+                timePerNoteScale = time.scale();
+            }
+            lastBpm = bpm;
+
             // Not sure if this is required or if I can just use D64 however
             // we clamp at the 3rd radix, so it doesn't matter that much.
-            final MathContext c = new MathContext(12, RoundingMode.HALF_EVEN);
-
-            curTime = curTime.add(
-                    calcTimePerNote(timeSignature, bpm),
-                    c
-            );
-            curBeat = curBeat.add(
-                    calcBeatPerNote(timeSignature),
-                    MathContext.DECIMAL64
-            );
+            curTime.add(timePerNoteUnscaled, timePerNoteScale, TIME_PRECISION);
+            advanceBeatByNote(timeSignature);
+        }
+    }
+
+    /**
+     * Advances only the beat of this sequence by a single note in the
+     * provided measure, the time is left unchanged. The beat doesn't depend
+     * on the BPM so this is the same for every rate.
+     *
+     * @param timeSignature The measure/signature for the note.
+     */
+    public void advanceBeatByNote(final int timeSignature) {
+        if (timeSignature <= 0) {
+            throw new Error("Time Signature must be positive: "
+                    + timeSignature);
+        }
+
+        if (timeSignature != lastSignature) {
+            final BigDecimal beat = calcBeatPerNote(timeSignature);
+            beatPerNoteUnscaled = beat.unscaledValue().longValueExact();
+            beatPerNoteScale = beat.scale();
+            lastSignature = timeSignature;
+            lastBpm = Double.NaN;
         }
+
+        curBeat.add(beatPerNoteUnscaled, beatPerNoteScale, BEAT_PRECISION);
     }
 
     /**
@@ -141,9 +218,15 @@ public class TimingSequence {
      * approach.
      */
     public BigDecimal getCurBeatScaled() {
-        final int defaultScale = 2;
+        return BigDecimal.valueOf(getCurBeatHundredths(), BEAT_SCALE_DIGITS);
+    }
 
-        return curBeat.setScale(defaultScale, RoundingMode.UP);
+    /**
+     * @return The current beat in hundredths of a beat rounded up, that is,
+     * {@link #getCurBeatScaled()} without the decimal point.
+     */
+    public long getCurBeatHundredths() {
+        return curBeat.scaleUp(BEAT_SCALE_DIGITS);
     }
 
     /**
@@ -151,9 +234,15 @@ public class TimingSequence {
      * approach.
      */
     public BigDecimal getCurTimeScaled() {
-        final int defaultScale = 3;
+        return BigDecimal.valueOf(getCurTimeMillis(), TIME_SCALE_DIGITS);
+    }
 
-        return curTime.setScale(defaultScale, RoundingMode.FLOOR);
+    /**
+     * @return The current time in whole Milliseconds rounded down, that is,
+     * {@link #getCurTimeScaled()} without the decimal point.
+     */
+    public long getCurTimeMillis() {
+        return curTime.scaleFloor(TIME_SCALE_DIGITS);
     }
 
     /**
@@ -161,11 +250,22 @@ public class TimingSequence {
      */
     public BigDecimal getCurTimeScaledMS() {
         // Get, scale, clamp
-        return new BigDecimal(getCurTimeScaled()
-                .multiply(BigDecimal.valueOf(MS_TIME_SCALE))
-                .toBigInteger()
-                .toString()
-        );
+        return BigDecimal.valueOf(getCurTimeMillis());
+    }
+
+    /**
+     * @return The current time of this sequence normalised against 60s.
+     */
+    public BigDecimal getCurTime() {
+        return curTime.toBigDecimal();
+    }
+
+    /**
+     * @return The current beat of this timing sequence normalised against
+     * 4/4 measure.
+     */
+    public BigDecimal getCurBeat() {
+        return curBeat.toBigDecimal();
     }
 
     /**
@@ -208,4 +308,213 @@ public class TimingSequence {
         return BigDecimal.valueOf(BASE_SIGNATURE)
                 .divide(BigDecimal.valueOf(measure), c);
     }
+
+    /**
+     * Non-negative decimal of at most 16 significant digits held as a long
+     * unscaled value and a scale, that is, value = unscaled * 10^-scale. The
+     * additions round exactly as {@link BigDecimal#add(BigDecimal,
+     * MathContext)} does with {@link RoundingMode#HALF_EVEN} so the values
+     * are identical to the BigDecimal equivalent without allocating.
+     */
+    private static final class FixedDecimal {
+
+        /**
+         * Powers of ten that fit in a long.
+         */
+        private static final long[] POW10 = new long[19];
+
+        static {
+            POW10[0] = 1;
+            for (int i = 1; i < POW10.length; ++i) {
+                POW10[i] = POW10[i - 1] * 10;
+            }
+        }
+
+        /**
+         * Result of an addition attempt that was rounded and stored.
+         */
+        private static final int DONE = 0;
+
+        /**
+         * Result of an addition attempt where the sum had one more digit
+         * than the assumed magnitude.
+         */
+        private static final int CARRY = 1;
+
+        /**
+         * Result of an addition attempt that can't be done in a long.
+         */
+        private static final int OVERFLOW = 2;
+
+        private long unscaled;
+        private int scale;
+
+        private FixedDecimal(final long unscaled, final int scale) {
+            this.unscaled = unscaled;
+            this.scale = scale;
+        }
+
+        /**
+         * Adds the provided value rounding the sum to the provided number of
+         * significant digits.
+         *
+         * @param addUnscaled The unscaled value to add.
+         * @param addScale The scale of the value to add.
+         * @param precision The number of significant digits to keep.
+         */
+        private void add(final long addUnscaled,
+                         final int addScale,
+                         final int precision) {
+            if (addUnscaled == 0) {
+                return;
+            }
+
+            int magnitude = magnitude(addUnscaled, addScale);
+            if (unscaled != 0) {
+                magnitude = Math.max(magnitude, magnitude(unscaled, scale));
+            }
+
+            int result = tryAdd(addUnscaled, addScale, precision, magnitude);
+            if (result == CARRY) {
+                result = tryAdd(
+                        addUnscaled, addScale, precision, magnitude + 1
+                );
+            }
+
+            // Should never happen for timing values but stays exact if so
+            if (result != DONE) {
+                set(toBigDecimal().add(
+                        BigDecimal.valueOf(addUnscaled, addScale),
+                        new MathContext(precision, RoundingMode.HALF_EVEN)
+                ));
+            }
+        }
+
+        /**
+         * Attempts the rounded addition assuming the magnitude of the sum.
+         *
+         * @return {@link #DONE}, {@link #CARRY}, or {@link #OVERFLOW}.
+         */
+        private int tryAdd(final long addUnscaled,
+                           final int addScale,
+                           final int precision,
+                           final int magnitude) {
+            final int resultScale = precision - 1 - magnitude;
+
+            // Split both into the digits kept and the digits dropped
+            final int dropA = scale - resultScale;
+            final int dropB = addScale - resultScale;
+            if (Math.abs(dropA) >= POW10.length
+                    || Math.abs(dropB) >= POW10.length) {
+                return OVERFLOW;
+            }
+
+            long quotient = 0;
+            long remainder = 0;
+            final int dropMax = Math.max(0, Math.max(dropA, dropB));
+            for (int i = 0; i < 2; ++i) {
+                final long u = i == 0 ? unscaled : addUnscaled;
+                final int drop = i == 0 ? dropA : dropB;
+
+                if (drop <= 0) {
+                    if (u > Long.MAX_VALUE / POW10[-drop]) {
+                        return OVERFLOW;
+                    }
+                    quotient += u * POW10[-drop];
+                } else {
+                    quotient += u / POW10[drop];
+                    remainder += (u % POW10[drop]) * POW10[dropMax - drop];
+                }
+            }
+
+            final long denominator = POW10[dropMax];
+            if (remainder >= denominator) {
+                ++quotient;
+                remainder -= denominator;
+            }
+
+            if (quotient >= POW10[precision]) {
+                return CARRY;
+            }
+
+            // Half even rounding of the dropped digits
+            if (remainder != 0) {
+                final long twice = remainder * 2;
+                if (twice > denominator
+                        || (twice == denominator && (quotient & 1) == 1)) {
+                    ++quotient;
+                }
+            }
+
+            // Rounding up can add a digit, the value is still the same
+            if (quotient == POW10[precision]) {
+                unscaled = quotient / 10;
+                scale = resultScale - 1;
+            } else {
+                unscaled = quotient;
+                scale = resultScale;
+            }
+            return DONE;
+        }
+
+        /**
+         * @param v The value to set this to.
+         */
+        private void set(final BigDecimal v) {
+            this.unscaled = v.unscaledValue().longValueExact();
+            this.scale = v.scale();
+        }
+
+        /**
+         * @param digits The number of decimal places.
+         * @return This value with the provided number of decimal places
+         * rounded down, without the decimal point.
+         */
+        private long scaleFloor(final int digits) {
+            final int drop = scale - digits;
+            if (drop <= 0) {
+                return unscaled * POW10[-drop];
+            } else if (drop >= POW10.length) {
+                return 0;
+            }
+            return unscaled / POW10[drop];
+        }
+
+        /**
+         * @param digits The number of decimal places.
+         * @return This value with the provided number of decimal places
+         * rounded up, without the decimal point.
+         */
+        private long scaleUp(final int digits) {
+            final int drop = scale - digits;
+            if (drop <= 0) {
+                return unscaled * POW10[-drop];
+            } else if (drop >= POW10.length) {
+                return unscaled == 0 ? 0 : 1;
+            }
+
+            final long v = unscaled / POW10[drop];
+            return (unscaled % POW10[drop]) == 0 ? v : v + 1;
+        }
+
+        /**
+         * @return This value as a BigDecimal.
+         */
+        private BigDecimal toBigDecimal() {
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+
+        /**
+         * @param u A positive unscaled value.
+         * @param s The scale of the value.
+         * @return The power of ten of the leading digit of the value.
+         */
+        private static int magnitude(final long u, final int s) {
+            int digits = 1;
+            while (digits < POW10.length && u >= POW10[digits]) {
+                ++digits;
+            }
+            return digits - 1 - s;
+        }
+    }
 }
@@ -1,7 +1,6 @@
 package com.ry.useful.property;
 
 import com.ry.useful.StringUtils;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -18,7 +17,6 @@ import java.util.regex.Pattern;
 @Getter
 @ToString
 @EqualsAndHashCode
-@AllArgsConstructor
 public class NamedRegexProperty implements Property {
 
     /**
@@ -44,6 +42,49 @@ public class NamedRegexProperty implements Property {
     @EqualsAndHashCode.Exclude
     private final ExtractionMode mode;
 
+    /**
+     * The '#TAG:' this property is read from when extracting from tokenized
+     * content, {@code null} if this property can only be read by regex.
+     */
+    @EqualsAndHashCode.Exclude
+    private final String tag;
+
+    /**
+     * Constructs a regex only property, that is, tokenized content is
+     * extracted using the regex as well.
+     *
+     * @param regex The regex for this property.
+     * @param group The capture group to extract.
+     * @param name The name of this property.
+     * @param mode The extraction mode.
+     */
+    public NamedRegexProperty(final Pattern regex,
+                              final int group,
+                              final String name,
+                              final ExtractionMode mode) {
+        this(regex, group, name, mode, null);
+    }
+
+    /**
+     * @param regex The regex for this property.
+     * @param group The capture group to extract, for tokenized content only 0
+     * (the full match) and 1 (the value) are supported.
+     * @param name The name of this property.
+     * @param mode The extraction mode.
+     * @param tag The tag this property is read from.
+     */
+    public NamedRegexProperty(final Pattern regex,
+                              final int group,
+                              final String name,
+                              final ExtractionMode mode,
+                              final String tag) {
+        this.regex = regex;
+        this.group = group;
+        this.name = name;
+        this.mode = mode;
+        this.tag = tag;
+    }
+
     /**
      * Extracts this property from the String content.
      *
@@ -68,6 +109,46 @@ public class NamedRegexProperty implements Property {
         }
     }
 
+    /**
+     * Extracts this property from tokenized content, iff this property has no
+     * tag then the regex is used instead.
+     *
+     * @param content The tokenized content to extract from.
+     * @return The extracted property.
+     */
+    @Override
+    public ExtractedProperty extract(final TokenizedContent content) {
+        if (tag == null || group > 1) {
+            return extract(content.getContent().toString());
+        }
+
+        final boolean isFullMatch = group == 0;
+        switch (mode) {
+            case SINGLETON -> {
+                final String extracted = content.getFirst(tag, isFullMatch);
+                if (extracted == null || extracted.isEmpty()) {
+                    return ExtractedProperty.empty(this);
+                } else {
+                    return ExtractedProperty.of(this, extracted);
+                }
+            }
+
+            case MANY -> {
+                final List<String> extracted = content.getAll(tag, isFullMatch);
+                if (extracted.isEmpty()) {
+                    return ExtractedProperty.empty(this);
+                } else {
+                    return ExtractedProperty.of(
+                            this,
+                            extracted.toArray(new String[0])
+                    );
+                }
+            }
+
+            default -> throw new Error("Unknown Mode: " + mode);
+        }
+    }
+
     /**
      * Loads a single property from the content string.
      *
@@ -14,4 +14,15 @@ public interface Property {
      * @return The extracted property.
      */
     ExtractedProperty extract(String content);
+
+    /**
+     * Extracts this property from already tokenized content, by default this
+     * just falls back to {@link #extract(String)}.
+     *
+     * @param content The tokenized content to extract this property from.
+     * @return The extracted property.
+     */
+    default ExtractedProperty extract(final TokenizedContent content) {
+        return extract(content.getContent().toString());
+    }
 }
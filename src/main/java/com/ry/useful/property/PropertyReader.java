@@ -5,11 +5,16 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Java class created on 06/04/2022 for usage in project FunctionalUtils.
@@ -27,20 +32,109 @@ public abstract class PropertyReader {
     private final File source;
 
     /**
-     * The File content loaded from source.
+     * How the source file was loaded.
      */
-    private final String content;
+    private final LoadMode loadMode;
 
     /**
-     * Constructs the reader from the base file.
+     * The File content loaded from source, for {@link LoadMode#MAPPED} this
+     * is only decoded when first requested.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String content;
+
+    /**
+     * The memory mapped file content, {@code null} unless the load mode is
+     * {@link LoadMode#MAPPED}.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final MappedByteBuffer mappedContent;
+
+    /**
+     * The content tokenized in a single pass, created on the first property
+     * load.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TokenizedContent tokenizedContent;
+
+    /**
+     * The SHA-1 of the loaded content, created on first request.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String contentHash;
+
+    /**
+     * Constructs the reader from the base file decoding the entire file.
      *
      * @param file The file to base this reader on.
      * @throws IOException If reading the file fails.
      */
     public PropertyReader(@NonNull final File file) throws IOException {
+        this(file, LoadMode.DECODED);
+    }
+
+    /**
+     * Constructs the reader from the base file using the provided load mode.
+     *
+     * @param file The file to base this reader on.
+     * @param mode How the file should be loaded.
+     * @throws IOException If reading, or mapping the file fails.
+     */
+    public PropertyReader(@NonNull final File file,
+                          @NonNull final LoadMode mode) throws IOException {
         if (!file.isFile()) throw new Error("Not File: " + file);
         this.source = file;
-        this.content = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+        this.loadMode = mode;
+
+        if (mode == LoadMode.MAPPED) {
+            try (FileChannel channel = FileChannel.open(
+                    file.toPath(), StandardOpenOption.READ)) {
+                this.mappedContent = channel.map(
+                        FileChannel.MapMode.READ_ONLY, 0, channel.size()
+                );
+            }
+            this.content = null;
+
+        } else {
+            this.mappedContent = null;
+            this.content = FileUtils.readFileToString(
+                    file, StandardCharsets.UTF_8
+            );
+        }
+    }
+
+    /**
+     * @return The File content loaded from source.
+     */
+    protected synchronized String getContent() {
+        if (content == null) {
+            content = StandardCharsets.UTF_8
+                    .decode(mappedContent.duplicate())
+                    .toString();
+        }
+        return content;
+    }
+
+    /**
+     * Hashes the content from the bytes already in memory, the source file
+     * is not read again. For {@link LoadMode#DECODED} this is the UTF-8
+     * encoding of the decoded content which, for any valid UTF-8 file, is
+     * the same as the file bytes.
+     *
+     * @return The SHA-1 of the content loaded from source.
+     */
+    protected synchronized String getContentHash() {
+        if (contentHash == null) {
+            contentHash = loadMode == LoadMode.MAPPED
+                    ? new DigestUtils(MessageDigestAlgorithms.SHA_1)
+                            .digestAsHex(mappedContent.duplicate())
+                    : DigestUtils.sha1Hex(content);
+        }
+        return contentHash;
     }
 
     /**
@@ -50,6 +144,43 @@ public abstract class PropertyReader {
      * @return The extracted property.
      */
     protected ExtractedProperty loadProperty(final Property property) {
-        return property.extract(content);
+        return property.extract(getTokenizedContent());
+    }
+
+    /**
+     * @return The content tokenized, this is done once and then reused for
+     * every property loaded.
+     */
+    protected synchronized TokenizedContent getTokenizedContent() {
+        if (tokenizedContent == null) {
+            if (loadMode == LoadMode.MAPPED) {
+                tokenizedContent = new TokenizedContent(mappedContent);
+            } else {
+                tokenizedContent = new TokenizedContent(content);
+            }
+        }
+        return tokenizedContent;
+    }
+
+    /**
+     * The ways a source file can be loaded.
+     */
+    public enum LoadMode {
+
+        /**
+         * The whole file is decoded to a String up front.
+         */
+        DECODED,
+
+        /**
+         * The file is memory mapped and tokenized as bytes, only the values
+         * that are actually extracted are decoded. The mapping is held for
+         * as long as the reader is and can't be released explicitly, it's
+         * only unmapped once the reader has been garbage collected. Until
+         * then the file stays open and, on Windows, locked; it can't be
+         * deleted, renamed or written to. Use {@link #DECODED} for files
+         * that may be changed whilst the reader is alive.
+         */
+        MAPPED;
     }
 }
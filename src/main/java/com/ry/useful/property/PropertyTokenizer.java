@@ -0,0 +1,147 @@
+package com.ry.useful.property;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+import java.util.Locale;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * Single pass tokenizer for '#TAG:VALUE;' style content, this produces the
+ * same matches as the regex "(?is)#TAG:(.*?)(([;#])|$)" does for every tag
+ * but only ever walks the content once.
+ *
+ * @author -Ry
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PropertyTokenizer {
+
+    /**
+     * Character that opens a tag.
+     */
+    private static final char TAG_START = '#';
+
+    /**
+     * Character that separates the tag from its value.
+     */
+    private static final char TAG_END = ':';
+
+    /**
+     * Character that terminates a value.
+     */
+    private static final char VALUE_END = ';';
+
+    /**
+     * Walks the provided content once emitting a token for every '#TAG:...'
+     * block found. A value is terminated by ';', the start of the next tag
+     * '#', or the end of the content; a terminating '#' is not consumed so
+     * that the next tag can still be read.
+     *
+     * @param content The content to tokenize.
+     * @param action The action to apply to every token.
+     */
+    public static void tokenize(@NonNull final CharSequence content,
+                                @NonNull final TokenConsumer action) {
+        final int length = content.length();
+        int i = 0;
+
+        while (i < length) {
+            if (content.charAt(i) != TAG_START) {
+                ++i;
+                continue;
+            }
+
+            // Read the tag name up to ':'
+            final int tagStart = i;
+            int j = i + 1;
+            while (j < length && !isTagBreak(content.charAt(j))) {
+                ++j;
+            }
+
+            // Not a tag, resume from the breaking character
+            if (j >= length || content.charAt(j) != TAG_END) {
+                i = j;
+                continue;
+            }
+
+            final String tag = content.subSequence(tagStart + 1, j)
+                    .toString()
+                    .toUpperCase(Locale.ROOT);
+
+            // Read the value up to ';' or '#'
+            final int valueStart = j + 1;
+            int k = valueStart;
+            while (k < length && !isValueBreak(content.charAt(k))) {
+                ++k;
+            }
+
+            // '$' matches before a final line terminator
+            final int valueEnd = k < length
+                    ? k
+                    : Math.max(valueStart, k - finalTerminatorLength(content));
+            final int matchEnd = k < length ? k + 1 : valueEnd;
+            action.accept(tag, tagStart, valueStart, valueEnd, matchEnd);
+
+            // ';' is consumed, '#' is the start of the next tag
+            i = (k < length && content.charAt(k) == VALUE_END) ? k + 1 : k;
+        }
+    }
+
+    /**
+     * @param content The content to test.
+     * @return The length of the line terminator at the very end of the
+     * content, or zero if there isn't one.
+     */
+    private static int finalTerminatorLength(final CharSequence content) {
+        final int length = content.length();
+        if (length >= 2
+                && content.charAt(length - 2) == '\r'
+                && content.charAt(length - 1) == '\n') {
+            return 2;
+        }
+
+        if (length >= 1) {
+            final char last = content.charAt(length - 1);
+            return (last == '\n' || last == '\r') ? 1 : 0;
+        }
+
+        return 0;
+    }
+
+    /**
+     * @param c The character to test.
+     * @return {@code true} if the character cannot be part of a tag name.
+     */
+    private static boolean isTagBreak(final char c) {
+        return c == TAG_END || c == TAG_START || c == VALUE_END;
+    }
+
+    /**
+     * @param c The character to test.
+     * @return {@code true} if the character terminates a value.
+     */
+    private static boolean isValueBreak(final char c) {
+        return c == VALUE_END || c == TAG_START;
+    }
+
+    /**
+     * Consumes the tokens produced by the tokenizer.
+     */
+    @FunctionalInterface
+    public interface TokenConsumer {
+
+        /**
+         * @param tag The upper case name of the tag.
+         * @param matchStart Index of the '#' that opened the tag.
+         * @param valueStart Index of the first character of the value.
+         * @param valueEnd Index after the last character of the value.
+         * @param matchEnd Index after the terminator, if there is one.
+         */
+        void accept(String tag,
+                    int matchStart,
+                    int valueStart,
+                    int valueEnd,
+                    int matchEnd);
+    }
+}
@@ -0,0 +1,230 @@
+package com.ry.useful.property;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Java class created on 18/10/2026 for usage in project FunctionalUtils.
+ * The result of a single {@link PropertyTokenizer} pass, that is, every tag
+ * found in the content mapped to the ranges of its values.
+ *
+ * @author -Ry
+ */
+public class TokenizedContent {
+
+    /**
+     * Number of indices stored for a single token.
+     */
+    private static final int TOKEN_WIDTH = 4;
+
+    /**
+     * The content that was tokenized, for byte content this is only decoded
+     * when first requested.
+     */
+    private CharSequence content;
+
+    /**
+     * The raw UTF-8 bytes that were tokenized, {@code null} if the content
+     * was tokenized as characters.
+     */
+    private final ByteBuffer bytes;
+
+    /**
+     * Map of upper case tag names to their token ranges, each token being
+     * [matchStart, valueStart, valueEnd, matchEnd] in content order.
+     */
+    private final Map<String, Ranges> tokens = new HashMap<>();
+
+    /**
+     * Tokenizes the provided content.
+     *
+     * @param content The content to tokenize.
+     */
+    public TokenizedContent(@NonNull final CharSequence content) {
+        this.content = content;
+        this.bytes = null;
+        tokenize(content);
+    }
+
+    /**
+     * Tokenizes the provided UTF-8 bytes directly, the delimiters are all
+     * ASCII and so can never appear inside a multibyte sequence. Values are
+     * only decoded when they're requested.
+     *
+     * @param bytes The bytes to tokenize, the position and limit are the
+     * bounds of the content.
+     */
+    public TokenizedContent(@NonNull final ByteBuffer bytes) {
+        this.content = null;
+        this.bytes = bytes.slice();
+        tokenize(new ByteSequence(this.bytes));
+    }
+
+    /**
+     * @param source The source to tokenize and store.
+     */
+    private void tokenize(final CharSequence source) {
+        PropertyTokenizer.tokenize(source, (tag, ms, vs, ve, me) -> tokens
+                .computeIfAbsent(tag, k -> new Ranges())
+                .add(ms, vs, ve, me)
+        );
+    }
+
+    /**
+     * @return The content that was tokenized, decoding it in full if it was
+     * tokenized as bytes.
+     */
+    public synchronized CharSequence getContent() {
+        if (content == null) {
+            content = StandardCharsets.UTF_8.decode(bytes.duplicate())
+                    .toString();
+        }
+        return content;
+    }
+
+    /**
+     * @param tag The tag to look for, case ignorant.
+     * @return The number of times the tag occurs.
+     */
+    public int count(@NonNull final String tag) {
+        final Ranges r = tokens.get(tag.toUpperCase(Locale.ROOT));
+        return r == null ? 0 : r.size;
+    }
+
+    /**
+     * Gets the first value for the provided tag.
+     *
+     * @param tag The tag to look for, case ignorant.
+     * @param isFullMatch If true then the '#TAG:' and terminator are included
+     * in the value, that is, regex group 0.
+     * @return {@code null} if the tag doesn't exist, else its first value.
+     */
+    public String getFirst(@NonNull final String tag,
+                           final boolean isFullMatch) {
+        final Ranges r = tokens.get(tag.toUpperCase(Locale.ROOT));
+        if (r == null) {
+            return null;
+        }
+        return valueOf(r, 0, isFullMatch);
+    }
+
+    /**
+     * Gets all the values for the provided tag.
+     *
+     * @param tag The tag to look for, case ignorant.
+     * @param isFullMatch If true then the '#TAG:' and terminator are included
+     * in the values, that is, regex group 0.
+     * @return All values in content order, even if none.
+     */
+    public List<String> getAll(@NonNull final String tag,
+                               final boolean isFullMatch) {
+        final Ranges r = tokens.get(tag.toUpperCase(Locale.ROOT));
+        if (r == null) {
+            return Collections.emptyList();
+        }
+
+        final List<String> xs = new ArrayList<>(r.size);
+        for (int i = 0; i < r.size; ++i) {
+            xs.add(valueOf(r, i, isFullMatch));
+        }
+        return xs;
+    }
+
+    /**
+     * @param r The ranges of a tag.
+     * @param index The token index.
+     * @param isFullMatch Full match or value only.
+     * @return The string value of the token.
+     */
+    private String valueOf(final Ranges r,
+                           final int index,
+                           final boolean isFullMatch) {
+        final int base = index * TOKEN_WIDTH;
+        final int start = r.bounds[base + (isFullMatch ? 0 : 1)];
+        final int end = r.bounds[base + (isFullMatch ? 3 : 2)];
+
+        if (bytes != null) {
+            return StandardCharsets.UTF_8
+                    .decode(bytes.slice(start, end - start))
+                    .toString();
+        }
+        return content.subSequence(start, end).toString();
+    }
+
+    /**
+     * Character view of raw bytes used only to find the ASCII delimiters,
+     * that is, every byte is widened to a char without decoding.
+     */
+    private static final class ByteSequence implements CharSequence {
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+
+        private ByteSequence(final ByteBuffer bytes) {
+            this(bytes, 0, bytes.limit());
+        }
+
+        private ByteSequence(final ByteBuffer bytes,
+                             final int offset,
+                             final int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return (char) (bytes.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new ByteSequence(bytes, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return StandardCharsets.UTF_8
+                    .decode(bytes.slice(offset, length))
+                    .toString();
+        }
+    }
+
+    /**
+     * Growable store of token indices for a single tag.
+     */
+    private static final class Ranges {
+        private int[] bounds = new int[TOKEN_WIDTH];
+        private int size;
+
+        private void add(final int ms,
+                         final int vs,
+                         final int ve,
+                         final int me) {
+            final int base = size * TOKEN_WIDTH;
+            if (base + TOKEN_WIDTH > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+
+            bounds[base] = ms;
+            bounds[base + 1] = vs;
+            bounds[base + 2] = ve;
+            bounds[base + 3] = me;
+            ++size;
+        }
+    }
+}